@@ -0,0 +1,30 @@
+package com.automation.benchmarks;
+
+import com.automation.base.BaseClass;
+import com.automation.base.BrowserProfile;
+import com.automation.base.WebAppServer;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Shared setup for the JMH benchmarks: a headless browser (override with -Dbenchmark.profile)
+ * pointed at the bundled webapp served by WebAppServer.
+ */
+final class BenchmarkBrowser {
+
+    private BenchmarkBrowser() {
+    }
+
+    static BrowserProfile profile() {
+        return BrowserProfile.byName(System.getProperty("benchmark.profile", "headless"));
+    }
+
+    static String appUrl() {
+        return WebAppServer.start().getBaseUrl() + "index.html";
+    }
+
+    static WebDriver launch() {
+        WebDriver driver = BaseClass.createDriver(profile());
+        driver.get(appUrl());
+        return driver;
+    }
+}
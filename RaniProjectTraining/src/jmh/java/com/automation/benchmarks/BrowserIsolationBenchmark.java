@@ -0,0 +1,139 @@
+package com.automation.benchmarks;
+
+import com.automation.base.BaseClass;
+import com.automation.base.BrowserContextPool;
+import com.automation.base.DriverBinaryResolver;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-per-scenario versus browser-context isolation: the time to open {@code sessions}
+ * isolated sessions in parallel (one per worker thread) and load the app, and the memory of
+ * every Chrome and chromedriver process while they are open. Memory is proportional set size
+ * from /proc, so pages shared between Chrome processes are not counted twice; it is reported
+ * as the {@code browserMemoryMb} counter and is only available on Linux.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BrowserIsolationBenchmark {
+
+    public enum Isolation { PROCESS, CONTEXT }
+
+    @Param({"PROCESS", "CONTEXT"})
+    public Isolation isolation;
+
+    @Param({"4"})
+    public int sessions;
+
+    private String appUrl;
+    private ExecutorService workers;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Memory {
+        public double browserMemoryMb;
+    }
+
+    @Setup(Level.Trial)
+    public void startBrowsers() {
+        DriverBinaryResolver.resolve();
+        appUrl = BenchmarkBrowser.appUrl();
+        // Worker threads live for the whole trial, as scenario workers do
+        workers = Executors.newFixedThreadPool(sessions);
+        if (isolation == Isolation.CONTEXT) {
+            BrowserContextPool.start(BenchmarkBrowser.profile());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopBrowsers() {
+        workers.shutdownNow();
+        BrowserContextPool.shutdown();
+    }
+
+    @Benchmark
+    public void openIsolatedSessions(Memory memory) throws Exception {
+        List<Future<WebDriver>> opened = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            opened.add(workers.submit(() -> {
+                WebDriver driver = isolation == Isolation.CONTEXT
+                        ? BrowserContextPool.get().acquire()
+                        : BaseClass.createDriver(BenchmarkBrowser.profile());
+                driver.get(appUrl);
+                return driver;
+            }));
+        }
+        List<WebDriver> drivers = new ArrayList<>();
+        for (Future<WebDriver> future : opened) {
+            drivers.add(future.get());
+        }
+        memory.browserMemoryMb = browserMemoryKb() / 1024.0;
+
+        List<Future<?>> closed = new ArrayList<>();
+        for (WebDriver driver : drivers) {
+            closed.add(workers.submit(() -> {
+                if (isolation == Isolation.CONTEXT) {
+                    BrowserContextPool.get().release();
+                } else {
+                    driver.quit();
+                }
+            }));
+        }
+        for (Future<?> future : closed) {
+            future.get();
+        }
+    }
+
+    /**
+     * Sum of Pss (or VmRSS where smaps_rollup is missing) over this JVM's descendant processes,
+     * which are the chromedriver services and the browsers they launched.
+     */
+    private static long browserMemoryKb() {
+        return ProcessHandle.current().descendants().mapToLong(process -> {
+            Path proc = Paths.get("/proc", String.valueOf(process.pid()));
+            long pss = readKb(proc.resolve("smaps_rollup"), "Pss:");
+            return pss >= 0 ? pss : Math.max(0, readKb(proc.resolve("status"), "VmRSS:"));
+        }).sum();
+    }
+
+    private static long readKb(Path file, String field) {
+        try {
+            for (String line : Files.readAllLines(file)) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // process exited or the file is not available on this platform
+        }
+        return -1;
+    }
+}
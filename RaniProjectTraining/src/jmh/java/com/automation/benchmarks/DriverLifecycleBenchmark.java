@@ -0,0 +1,59 @@
+package com.automation.benchmarks;
+
+import com.automation.base.BaseClass;
+import com.automation.base.BrowserProfile;
+import com.automation.base.DriverBinaryResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browser startup and teardown cost per launch profile. Each sample is one launch, so this runs
+ * in single-shot mode; driver resolution happens once in setup and is not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class DriverLifecycleBenchmark {
+
+    @Param({"HEADLESS", "MINIMAL"})
+    public BrowserProfile profile;
+
+    private String appUrl;
+
+    @Setup(Level.Trial)
+    public void resolveDriver() {
+        DriverBinaryResolver.resolve();
+        appUrl = BenchmarkBrowser.appUrl();
+    }
+
+    @Benchmark
+    public void startAndQuit() {
+        BaseClass.createDriver(profile).quit();
+    }
+
+    @Benchmark
+    public void startNavigateAndQuit() {
+        WebDriver driver = BaseClass.createDriver(profile);
+        try {
+            driver.get(appUrl);
+        } finally {
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.automation.benchmarks;
+
+import com.automation.services.S3Service;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the S3 report bucket, so S3 code can be benchmarked without AWS.
+ * Serves path-style ListObjectsV2 with continuation tokens and S3's 1000-key page limit, and
+ * GET/HEAD Object with If-None-Match, If-Match, single byte ranges and HEAD by part number.
+ * Objects are kept in memory with the ETag S3 would give them: the MD5 for single-part uploads,
+ * or the MD5 of the part MD5s for multipart ones. A first-byte latency and a per-connection bandwidth
+ * can be set to model the round trip to, and the throughput of one stream from, a real bucket.
+ */
+final class LocalS3Server implements AutoCloseable {
+
+    static final String BUCKET = "ip-report-prod";
+    static final String PREFIX = "adv-report/commission/weekly/";
+
+    private static final int MAX_KEYS = 1000;
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final NavigableMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+    private volatile long latencyMillis;
+    private volatile long bytesPerSecond;
+
+    LocalS3Server() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start local S3 server", e);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        // Unbounded, so simulated latency never queues requests behind each other
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-s3-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Add {@code count} daily reports named after consecutive dates from 2000-01-01, each with
+     * {@code size} bytes of CSV-like content.
+     */
+    LocalS3Server withWeeklyReports(int count, int size) {
+        return withWeeklyReports(count, size, 0);
+    }
+
+    /**
+     * As {@link #withWeeklyReports(int, int)}, stored as multipart uploads of {@code partSize}
+     * bytes per part (0 for single-part).
+     */
+    LocalS3Server withWeeklyReports(int count, int size, int partSize) {
+        LocalDate date = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < count; i++) {
+            String key = PREFIX + date.plusDays(i) + ".csv";
+            objects.put(key, new StoredObject(content(key, size), partSize));
+        }
+        return this;
+    }
+
+    /**
+     * Delay every response by {@code millis} before the first byte is sent.
+     */
+    LocalS3Server withLatency(long millis) {
+        this.latencyMillis = millis;
+        return this;
+    }
+
+    /**
+     * Limit every response body to {@code bytesPerSecond}, independently per connection, as a
+     * single TCP stream from S3 is limited well below the host's bandwidth.
+     */
+    LocalS3Server withBandwidthPerConnection(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    void put(String key, byte[] bytes) {
+        objects.put(key, new StoredObject(bytes, 0));
+    }
+
+    URI endpoint() {
+        return URI.create("http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort());
+    }
+
+    /**
+     * A client for this server, as S3Service would build for the real bucket.
+     */
+    S3Client client() {
+        return S3Client.builder()
+                .endpointOverride(endpoint())
+                .region(Region.US_EAST_2)
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("local", "local")))
+                .build();
+    }
+
+    S3AsyncClient asyncClient() {
+        return S3AsyncClient.builder()
+                .endpointOverride(endpoint())
+                .region(Region.US_EAST_2)
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("local", "local")))
+                .build();
+    }
+
+    /**
+     * An S3Service on this server.
+     */
+    S3Service service() {
+        return new S3Service(client(), asyncClient());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            requestBody.readAllBytes();
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            StoredObject object = path.startsWith("/" + BUCKET + "/") ? objects.get(path.substring(BUCKET.length() + 2)) : null;
+            if ("GET".equals(method) && path.equals("/" + BUCKET) && "2".equals(query.get("list-type"))) {
+                exchange.getResponseHeaders().set("Content-Type", "application/xml");
+                send(exchange, 200, listObjectsV2(query).getBytes(StandardCharsets.UTF_8));
+            } else if (object != null && ("GET".equals(method) || "HEAD".equals(method))) {
+                exchange.getResponseHeaders().set("Content-Type", "text/csv");
+                exchange.getResponseHeaders().set("ETag", "\"" + object.eTag + "\"");
+                exchange.getResponseHeaders().set("Last-Modified",
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format(LAST_MODIFIED.atZone(ZoneOffset.UTC)));
+                String eTag = "\"" + object.eTag + "\"";
+                String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+                String range = exchange.getRequestHeaders().getFirst("Range");
+                if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else if (ifMatch != null && !ifMatch.equals(eTag)) {
+                    exchange.sendResponseHeaders(412, -1);
+                } else if ("HEAD".equals(method) && query.containsKey("partNumber")) {
+                    int partNumber = Integer.parseInt(query.get("partNumber"));
+                    int partSize = object.partSize > 0 ? object.partSize : object.bytes.length;
+                    long partLength = Math.min(partSize, object.bytes.length - (long) (partNumber - 1) * partSize);
+                    if (partNumber < 1 || partLength <= 0) {
+                        exchange.sendResponseHeaders(416, -1);
+                    } else {
+                        exchange.getResponseHeaders().set("Content-Length", String.valueOf(partLength));
+                        exchange.getResponseHeaders().set("x-amz-mp-parts-count", String.valueOf(object.parts()));
+                        exchange.sendResponseHeaders(206, -1);
+                    }
+                } else if ("HEAD".equals(method)) {
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.bytes.length));
+                    exchange.sendResponseHeaders(200, -1);
+                } else if (range != null && range.startsWith("bytes=")) {
+                    int dash = range.indexOf('-');
+                    int first = Integer.parseInt(range.substring(6, dash));
+                    int last = dash == range.length() - 1
+                            ? object.bytes.length - 1
+                            : Math.min(object.bytes.length - 1, Integer.parseInt(range.substring(dash + 1)));
+                    if (first > last) {
+                        exchange.sendResponseHeaders(416, -1);
+                    } else {
+                        exchange.getResponseHeaders().set("Content-Range",
+                                "bytes " + first + "-" + last + "/" + object.bytes.length);
+                        send(exchange, 206, object.bytes, first, last - first + 1);
+                    }
+                } else {
+                    send(exchange, 200, object.bytes);
+                }
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String listObjectsV2(Map<String, String> query) {
+        String prefix = query.getOrDefault("prefix", "");
+        int maxKeys = Math.min(MAX_KEYS, Integer.parseInt(query.getOrDefault("max-keys", String.valueOf(MAX_KEYS))));
+        String token = query.get("continuation-token");
+        String after = token != null
+                ? new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                : query.getOrDefault("start-after", "");
+
+        StringBuilder contents = new StringBuilder();
+        int count = 0;
+        String lastKey = null;
+        boolean truncated = false;
+        NavigableMap<String, StoredObject> candidates = after.compareTo(prefix) < 0
+                ? objects.tailMap(prefix, true)
+                : objects.tailMap(after, false);
+        for (Map.Entry<String, StoredObject> entry : candidates.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (count == maxKeys) {
+                truncated = true;
+                break;
+            }
+            StoredObject object = entry.getValue();
+            contents.append("<Contents><Key>").append(entry.getKey()).append("</Key>")
+                    .append("<LastModified>").append(LAST_MODIFIED).append("</LastModified>")
+                    .append("<ETag>&quot;").append(object.eTag).append("&quot;</ETag>")
+                    .append("<Size>").append(object.bytes.length).append("</Size>")
+                    .append("<StorageClass>STANDARD</StorageClass></Contents>");
+            lastKey = entry.getKey();
+            count++;
+        }
+
+        StringBuilder xml = new StringBuilder(contents.length() + 512)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                .append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append("<Name>").append(BUCKET).append("</Name>")
+                .append("<Prefix>").append(prefix).append("</Prefix>")
+                .append("<KeyCount>").append(count).append("</KeyCount>")
+                .append("<MaxKeys>").append(maxKeys).append("</MaxKeys>")
+                .append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        if (token != null) {
+            xml.append("<ContinuationToken>").append(token).append("</ContinuationToken>");
+        }
+        if (truncated) {
+            xml.append("<NextContinuationToken>")
+                    .append(Base64.getUrlEncoder().encodeToString(lastKey.getBytes(StandardCharsets.UTF_8)))
+                    .append("</NextContinuationToken>");
+        }
+        return xml.append(contents).append("</ListBucketResult>").toString();
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException, InterruptedException {
+        send(exchange, status, body, 0, body.length);
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body, int offset, int length)
+            throws IOException, InterruptedException {
+        exchange.sendResponseHeaders(status, length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            long rate = bytesPerSecond;
+            if (rate <= 0) {
+                out.write(body, offset, length);
+                return;
+            }
+            // Paced in 64 KB chunks against the start time, so sleep overshoot does not add up
+            int chunk = 64 * 1024;
+            long start = System.nanoTime();
+            for (int sent = 0; sent < length; ) {
+                int n = Math.min(chunk, length - sent);
+                out.write(body, offset + sent, n);
+                sent += n;
+                long due = start + sent * 1_000_000_000L / rate;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static byte[] content(String key, int size) {
+        byte[] line = ("report," + key + ",0.00\n").getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = line[i % line.length];
+        }
+        return bytes;
+    }
+
+    private static final class StoredObject {
+        private final byte[] bytes;
+        private final int partSize;
+        private final String eTag;
+
+        private StoredObject(byte[] bytes, int partSize) {
+            this.bytes = bytes;
+            this.partSize = partSize;
+            this.eTag = partSize > 0 ? multipartETag() : hex(md5(bytes, 0, bytes.length));
+        }
+
+        private int parts() {
+            return partSize > 0 ? (bytes.length + partSize - 1) / partSize : 1;
+        }
+
+        private String multipartETag() {
+            MessageDigest partDigests = md5();
+            for (int offset = 0; offset < bytes.length; offset += partSize) {
+                partDigests.update(md5(bytes, offset, Math.min(partSize, bytes.length - offset)));
+            }
+            return hex(partDigests.digest()) + "-" + parts();
+        }
+
+        private static byte[] md5(byte[] bytes, int offset, int length) {
+            MessageDigest md5 = md5();
+            md5.update(bytes, offset, length);
+            return md5.digest();
+        }
+
+        private static MessageDigest md5() {
+            try {
+                return MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("MD5 not available", e);
+            }
+        }
+
+        private static String hex(byte[] digest) {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.automation.benchmarks;
+
+import com.automation.base.ElementCache;
+import com.automation.base.SmartWait;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving the login username field by locator strategy and by wait mechanism:
+ * a raw findElement, WebDriverWait, SmartWait and an ElementCache hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LocatorBenchmark {
+
+    @Param({"id", "css", "xpath"})
+    public String strategy;
+
+    private WebDriver driver;
+    private By locator;
+    private WebDriverWait webDriverWait;
+    private SmartWait smartWait;
+    private ElementCache elementCache;
+
+    @Setup(Level.Trial)
+    public void startBrowser() {
+        driver = BenchmarkBrowser.launch();
+        switch (strategy) {
+            case "css":
+                locator = By.cssSelector("#loginForm input[name='username']");
+                break;
+            case "xpath":
+                locator = By.xpath("//form[@id='loginForm']//input[@name='username']");
+                break;
+            default:
+                locator = By.id("loginUsername");
+        }
+        webDriverWait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        smartWait = new SmartWait(driver);
+        elementCache = new ElementCache(smartWait);
+    }
+
+    @TearDown(Level.Trial)
+    public void quitBrowser() {
+        driver.quit();
+    }
+
+    @Benchmark
+    public WebElement findElement() {
+        return driver.findElement(locator);
+    }
+
+    @Benchmark
+    public WebElement webDriverWaitClickable() {
+        return webDriverWait.until(ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    @Benchmark
+    public WebElement smartWaitClickable() {
+        return smartWait.clickable(locator);
+    }
+
+    @Benchmark
+    public WebElement elementCacheClickable() {
+        return elementCache.clickable(locator);
+    }
+}
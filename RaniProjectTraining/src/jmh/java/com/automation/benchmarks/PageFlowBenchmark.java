@@ -0,0 +1,67 @@
+package com.automation.benchmarks;
+
+import com.automation.pages.LoginPage;
+import com.automation.pages.RegistrationPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end page-object flows against the bundled webapp, each starting from a fresh page load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PageFlowBenchmark {
+
+    private WebDriver driver;
+    private String appUrl;
+
+    @Setup(Level.Trial)
+    public void startBrowser() {
+        driver = BenchmarkBrowser.launch();
+        appUrl = BenchmarkBrowser.appUrl();
+    }
+
+    @TearDown(Level.Trial)
+    public void quitBrowser() {
+        driver.quit();
+    }
+
+    @Benchmark
+    public String login() {
+        driver.get(appUrl);
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.login("testuser", "password123");
+        return loginPage.getLoginMessage();
+    }
+
+    @Benchmark
+    public String registration() {
+        driver.get(appUrl);
+        RegistrationPage registrationPage = new RegistrationPage(driver);
+        registrationPage.register("John Doe", "john.doe@example.com", "johndoe", "password123");
+        return registrationPage.getRegisterMessage();
+    }
+
+    @Benchmark
+    public void tabSwitch() {
+        new RegistrationPage(driver).clickRegisterTab();
+        new LoginPage(driver).clickLoginTab();
+    }
+}
@@ -0,0 +1,89 @@
+package com.automation.benchmarks;
+
+import com.automation.services.ReportDownloads;
+import com.automation.services.ReportFileCache;
+import com.automation.services.S3Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Downloading a year of reports (52 objects of 256 KB) from a local S3 stand-in with 20 ms of
+ * first-byte latency per request, by download concurrency. Concurrency 1 is the old serial
+ * loop. With a cold cache every report is transferred; with a warm one the reports are already
+ * in the local report cache and their listed ETags match, so nothing is requested.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class S3DownloadBenchmark {
+
+    private static final int REPORTS = 52;
+
+    @Param({"1", "8", "32"})
+    public int concurrency;
+
+    @Param({"cold", "warm"})
+    public String cache;
+
+    private LocalS3Server s3;
+    private S3Service service;
+    private Path downloadDirectory;
+
+    @Setup(Level.Trial)
+    public void startS3() throws IOException {
+        downloadDirectory = Files.createTempDirectory("s3-download-benchmark");
+        System.setProperty("s3.download.concurrency", String.valueOf(concurrency));
+        System.setProperty("s3.cache.dir", downloadDirectory.resolve("cache").toString());
+        s3 = new LocalS3Server().withWeeklyReports(REPORTS, 256 * 1024).withLatency(20);
+        service = s3.service();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareCache() {
+        if ("cold".equals(cache)) {
+            ReportFileCache.shared().clear();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopS3() throws IOException {
+        service.close();
+        s3.close();
+        try (Stream<Path> files = Files.walk(downloadDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ReportDownloads downloadYear() {
+        LocalDate first = LocalDate.of(2000, 1, 1);
+        ReportDownloads downloads = service.downloadWeeklyReports(first, first.plusDays(REPORTS - 1),
+                downloadDirectory.resolve("reports").toString());
+        if (downloads.hasFailures()) {
+            throw new IllegalStateException("Downloads failed: " + downloads.getFailures().keySet());
+        }
+        return downloads;
+    }
+}
@@ -0,0 +1,96 @@
+package com.automation.benchmarks;
+
+import com.automation.services.ReportIndex;
+import com.automation.services.ReportObject;
+import com.automation.services.S3Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing the weekly report prefix through S3Service against a local S3 stand-in: streaming
+ * every page, finding a report near the start of the listing (which should stop after the
+ * first page), loading the report index with a full listing, building the date index from a
+ * listing, and the latest-report, all-keys and one-year range lookups served from the cached
+ * index. Run with {@code -prof gc} to compare allocation between streaming and collecting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class S3ListingBenchmark {
+
+    @Param({"10000", "100000"})
+    public int keys;
+
+    private LocalS3Server s3;
+    private S3Service service;
+    private String earlyDate;
+    private List<ReportObject> listing;
+
+    @Setup(Level.Trial)
+    public void startS3() {
+        s3 = new LocalS3Server().withWeeklyReports(keys, 64);
+        service = s3.service();
+        earlyDate = LocalDate.of(2000, 1, 1).plusDays(10).toString();
+        listing = service.getWeeklyReportListing();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopS3() {
+        service.close();
+        s3.close();
+    }
+
+    @Benchmark
+    public long streamAll() {
+        return service.streamWeeklyReports().mapToLong(ReportObject::getSize).sum();
+    }
+
+    @Benchmark
+    public boolean findEarlyReport() {
+        return service.streamWeeklyReports().anyMatch(report -> report.getKey().contains(earlyDate));
+    }
+
+    @Benchmark
+    public ReportIndex fullIndexListing() {
+        service.invalidateReportIndex();
+        return service.getWeeklyReportIndex();
+    }
+
+    @Benchmark
+    public ReportIndex buildDateIndex() {
+        return ReportIndex.of(listing);
+    }
+
+    @Benchmark
+    public List<String> cachedAllKeys() {
+        return service.getAllWeeklyReports();
+    }
+
+    @Benchmark
+    public String cachedLatestReport() {
+        return service.getLatestWeeklyReport();
+    }
+
+    @Benchmark
+    public List<String> cachedYearRange() {
+        return service.getWeeklyReportsByDateRange(LocalDate.of(2010, 1, 1), LocalDate.of(2010, 12, 31));
+    }
+}
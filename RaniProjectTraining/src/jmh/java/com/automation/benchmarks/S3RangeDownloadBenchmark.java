@@ -0,0 +1,80 @@
+package com.automation.benchmarks;
+
+import com.automation.services.ReportFileCache;
+import com.automation.services.S3Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Downloading one 32 MB report from a local S3 stand-in that serves each connection at 16 MB/s,
+ * as a single GET and as 4 MB byte ranges with 8 in flight. The report is a multipart upload of
+ * 8 MB parts, as large reports are, so the ranged download includes rebuilding and checking its
+ * multipart ETag. The report cache is cleared before every download, so each one is a full
+ * transfer after a HEAD request.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class S3RangeDownloadBenchmark {
+
+    private static final String KEY = LocalS3Server.PREFIX + "2000-01-01.csv";
+    private static final int REPORT_BYTES = 32 * 1024 * 1024;
+
+    @Param({"single", "ranged"})
+    public String mode;
+
+    private LocalS3Server s3;
+    private S3Service service;
+    private Path downloadDirectory;
+
+    @Setup(Level.Trial)
+    public void startS3() throws IOException {
+        downloadDirectory = Files.createTempDirectory("s3-range-download-benchmark");
+        System.setProperty("s3.cache.dir", downloadDirectory.resolve("cache").toString());
+        System.setProperty("s3.download.rangeThresholdMb", "single".equals(mode) ? String.valueOf(Integer.MAX_VALUE) : "16");
+        System.setProperty("s3.download.partMb", "4");
+        System.setProperty("s3.download.rangeConcurrency", "8");
+        s3 = new LocalS3Server().withWeeklyReports(1, REPORT_BYTES, 8 * 1024 * 1024).withBandwidthPerConnection(16L * 1024 * 1024);
+        service = s3.service();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearCache() {
+        ReportFileCache.shared().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopS3() throws IOException {
+        service.close();
+        s3.close();
+        try (Stream<Path> files = Files.walk(downloadDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Path downloadReport() {
+        return service.downloadReport(KEY, downloadDirectory.resolve("report.csv").toString());
+    }
+}
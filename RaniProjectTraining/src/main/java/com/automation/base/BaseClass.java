@@ -1,62 +1,248 @@
 package com.automation.base;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BaseClass {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(BaseClass.class);
-    protected static WebDriver driver;
-    protected static WebDriverWait wait;
-    
+
+    // Each worker thread owns its own driver/wait so scenarios can run in parallel
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<WebDriverWait> wait = new ThreadLocal<>();
+    private static final ThreadLocal<BrowserProfile> driverProfile = new ThreadLocal<>();
+    // Bumped on every navigation so per-page element caches know their handles are gone
+    private static final ThreadLocal<Long> navigationEpoch = ThreadLocal.withInitial(() -> 0L);
+
+    // Session reuse: keep one warm browser per worker and reset it between scenarios
+    private static final boolean reuseBrowser = Boolean.getBoolean("browser.reuse");
+    private static final int recycleAfter = Integer.getInteger("browser.recycle.after", 0);
+    private static final boolean recycleOnFailure =
+            Boolean.parseBoolean(System.getProperty("browser.recycle.onFailure", "true"));
+    private static final ThreadLocal<Integer> scenariosOnDriver = ThreadLocal.withInitial(() -> 0);
+    private static final Set<WebDriver> liveDrivers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Start the pre-warmed DriverPool when -Dbrowser.pool.size=N is set. Browsers launch in the
+     * background; initializeDriver() then leases from the pool instead of launching Chrome.
+     * With -Dbrowser.isolation=context one shared Chrome is started instead and every scenario
+     * gets its own browser context in it (see BrowserContextPool).
+     */
+    public static void startDriverPool() {
+        if ("context".equalsIgnoreCase(System.getProperty("browser.isolation", "process"))) {
+            BrowserContextPool.start(BrowserProfile.fromSystemProperty());
+            return;
+        }
+        int poolSize = Integer.getInteger("browser.pool.size", 0);
+        if (poolSize > 0) {
+            DriverPool.start(poolSize, recycleAfter);
+        }
+    }
+
     public static void initializeDriver() {
+        initializeDriver(BrowserProfile.fromSystemProperty());
+    }
+
+    /**
+     * Initialize the driver for this thread with a specific launch profile. A reused browser
+     * launched with another profile is relaunched; pooled browsers and browser contexts always
+     * use -Dbrowser.profile.
+     */
+    public static void initializeDriver(BrowserProfile profile) {
+        if (driver.get() != null && !DriverPool.isRunning() && !BrowserContextPool.isRunning()
+                && driverProfile.get() != profile) {
+            logger.info("Relaunching WebDriver with profile {}", profile);
+            quitDriver();
+        }
+        if (driver.get() != null) {
+            // Several step classes share the same @Before; keep the driver this thread already owns
+            logger.debug("WebDriver already initialized for thread {}", Thread.currentThread().getName());
+            return;
+        }
         try {
-            WebDriverManager.chromedriver().setup();
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--start-maximized");
-            options.addArguments("--disable-notifications");
-            options.addArguments("--disable-popup-blocking");
-            
-            
-            driver = new ChromeDriver(options);
-            wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-            
-            logger.info("WebDriver initialized successfully");
+            WebDriver newDriver;
+            if (BrowserContextPool.isRunning()) {
+                newDriver = BrowserContextPool.get().acquire();
+            } else if (DriverPool.isRunning()) {
+                newDriver = DriverPool.get().lease();
+            } else {
+                newDriver = createDriver(profile);
+                liveDrivers.add(newDriver);
+            }
+            driver.set(newDriver);
+            driverProfile.set(profile);
+            scenariosOnDriver.set(0);
+            wait.set(new WebDriverWait(newDriver, Duration.ofSeconds(10)));
+
+            logger.info("WebDriver initialized successfully ({} profile)", driverProfile.get());
         } catch (Exception e) {
             logger.error("Failed to initialize WebDriver: " + e.getMessage());
             throw new RuntimeException("WebDriver initialization failed", e);
         }
     }
-    
+
+    /**
+     * Launch a new, unregistered Chrome instance. Used directly by initializeDriver() and by
+     * DriverPool to warm browsers in the background.
+     */
+    public static WebDriver createDriver() {
+        return createDriver(BrowserProfile.fromSystemProperty());
+    }
+
+    public static WebDriver createDriver(BrowserProfile profile) {
+        DriverBinaryResolver.resolve();
+        WebDriver newDriver = new ChromeDriver(profile.toOptions());
+        prepareTarget(newDriver, profile);
+        return CommandMetrics.instrument(newDriver);
+    }
+
+    /**
+     * CDP settings and injected scripts for the page target a raw (uninstrumented) driver is on:
+     * a freshly launched browser, or a new browser context's tab.
+     */
+    static void prepareTarget(WebDriver rawDriver, BrowserProfile profile) {
+        profile.afterLaunch(rawDriver);
+        FailureArtifacts.installConsoleCapture(rawDriver);
+        BrowserPerformance.install(rawDriver);
+    }
+
     public static void quitDriver() {
-        if (driver != null) {
-            driver.quit();
-            logger.info("WebDriver closed successfully");
+        WebDriver current = driver.get();
+        if (current != null && BrowserContextPool.isRunning()) {
+            driver.remove();
+            wait.remove();
+            BrowserContextPool.get().release();
+            return;
+        }
+        if (current != null && DriverPool.isRunning()) {
+            // Let the pool quit it so a replacement is launched in the background
+            driver.remove();
+            wait.remove();
+            DriverPool.get().giveBack(current, true);
+            return;
+        }
+        if (current != null) {
+            try {
+                current.quit();
+                logger.info("WebDriver closed successfully");
+            } finally {
+                liveDrivers.remove(current);
+                driver.remove();
+                wait.remove();
+                driverProfile.remove();
+                scenariosOnDriver.remove();
+            }
         }
     }
-    
+
+    /**
+     * End-of-scenario hook. Quits the driver unless -Dbrowser.reuse=true, in which case the
+     * browser is reset and kept for the next scenario on this worker until the recycle policy
+     * (-Dbrowser.recycle.after=N scenarios, -Dbrowser.recycle.onFailure) says otherwise.
+     * Pooled browsers are handed back to the DriverPool instead, and browser contexts are
+     * disposed.
+     */
+    public static void releaseDriver(boolean scenarioFailed) {
+        WebDriver current = driver.get();
+        if (current == null) {
+            return;
+        }
+        if (BrowserContextPool.isRunning()) {
+            quitDriver();
+            return;
+        }
+        if (DriverPool.isRunning()) {
+            driver.remove();
+            wait.remove();
+            DriverPool.get().giveBack(current, scenarioFailed && recycleOnFailure);
+            return;
+        }
+        if (!reuseBrowser) {
+            quitDriver();
+            return;
+        }
+
+        int used = scenariosOnDriver.get() + 1;
+        scenariosOnDriver.set(used);
+        if (scenarioFailed && recycleOnFailure) {
+            logger.info("Recycling WebDriver after failed scenario");
+            quitDriver();
+        } else if (recycleAfter > 0 && used >= recycleAfter) {
+            logger.info("Recycling WebDriver after {} scenarios", used);
+            quitDriver();
+        } else {
+            try {
+                resetSession(current);
+            } catch (Exception e) {
+                logger.warn("Failed to reset WebDriver session, recycling it: " + e.getMessage());
+                quitDriver();
+            }
+        }
+    }
+
+    static void resetSession(WebDriver current) {
+        current.manage().deleteAllCookies();
+        try {
+            ((JavascriptExecutor) current).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        } catch (Exception e) {
+            logger.debug("Could not clear web storage: " + e.getMessage());
+        }
+        current.get("about:blank");
+        navigationEpoch.set(navigationEpoch.get() + 1);
+        logger.info("WebDriver session reset for reuse");
+    }
+
+    /**
+     * Quit every driver still alive on any worker (used at suite end when browsers are reused).
+     */
+    public static void quitAllDrivers() {
+        BrowserContextPool.shutdown();
+        DriverPool.shutdown();
+        for (WebDriver live : liveDrivers) {
+            try {
+                live.quit();
+            } catch (Exception e) {
+                logger.warn("Failed to quit WebDriver: " + e.getMessage());
+            }
+        }
+        liveDrivers.clear();
+        driver.remove();
+        wait.remove();
+        logger.info("All WebDrivers closed");
+    }
+
     public static WebDriver getDriver() {
-        return driver;
+        return driver.get();
     }
-    
+
     public static WebDriverWait getWait() {
-        return wait;
+        return wait.get();
     }
-    
+
+    /**
+     * Incremented each time this thread's driver navigates to a new document.
+     */
+    public static long getNavigationEpoch() {
+        return navigationEpoch.get();
+    }
+
     public static void navigateToUrl(String url) {
         try {
-            driver.get(url);
+            navigationEpoch.set(navigationEpoch.get() + 1);
+            getDriver().get(url);
             logger.info("Navigated to URL: " + url);
         } catch (Exception e) {
             logger.error("Failed to navigate to URL: " + e.getMessage());
             throw new RuntimeException("Navigation failed", e);
         }
     }
-} 
\ No newline at end of file
+}
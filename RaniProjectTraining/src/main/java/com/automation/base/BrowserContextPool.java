@@ -0,0 +1,223 @@
+package com.automation.base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Browser-context isolation (-Dbrowser.isolation=context). One Chrome process is shared by all
+ * workers; each scenario gets its own incognito-like browser context (CDP
+ * Target.createBrowserContext) with separate cookies, storage and cache, opened in a new tab.
+ * Disposing the context at scenario end throws all of that away in milliseconds, without
+ * starting or stopping a browser.
+ *
+ * <p>Each worker thread keeps one WebDriver session attached to the shared Chrome through its
+ * debugger address, so workers switch between their own tabs independently. Per-target setup
+ * (profile settings, console and performance scripts) is applied to every new tab.
+ */
+public class BrowserContextPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContextPool.class);
+
+    private static volatile BrowserContextPool instance;
+
+    private final BrowserProfile profile;
+    private final ChromeDriver host;
+    private final String debuggerAddress;
+    private final ThreadLocal<Worker> workers = new ThreadLocal<>();
+    private final Set<Worker> allWorkers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong contexts = new AtomicLong();
+    private final AtomicLong totalCreateNanos = new AtomicLong();
+    private final AtomicLong maxCreateNanos = new AtomicLong();
+    private final AtomicLong totalDisposeNanos = new AtomicLong();
+
+    /**
+     * One worker's session on the shared browser and the context it is currently in.
+     */
+    private static class Worker {
+        private final ChromeDriver raw;
+        private final WebDriver instrumented;
+        private final String homeWindow;
+        private String contextId;
+
+        Worker(ChromeDriver raw) {
+            this.raw = raw;
+            this.instrumented = CommandMetrics.instrument(raw);
+            this.homeWindow = raw.getWindowHandle();
+        }
+    }
+
+    private BrowserContextPool(BrowserProfile profile, ChromeDriver host, String debuggerAddress) {
+        this.profile = profile;
+        this.host = host;
+        this.debuggerAddress = debuggerAddress;
+    }
+
+    /**
+     * Launch the shared browser. Calling it again while the pool is running is a no-op.
+     */
+    public static synchronized void start(BrowserProfile profile) {
+        if (instance != null) {
+            return;
+        }
+        DriverBinaryResolver.resolve();
+        ChromeDriver host = new ChromeDriver(profile.toOptions());
+        Object chromeOptions = host.getCapabilities().getCapability("goog:chromeOptions");
+        Object address = chromeOptions instanceof Map ? ((Map<?, ?>) chromeOptions).get("debuggerAddress") : null;
+        if (address == null) {
+            host.quit();
+            throw new IllegalStateException("Chrome did not report a debugger address; browser contexts need chromedriver 2.38+");
+        }
+        instance = new BrowserContextPool(profile, host, address.toString());
+        logger.info("Browser context pool started: one {} Chrome at {}", profile, address);
+    }
+
+    public static boolean isRunning() {
+        return instance != null;
+    }
+
+    public static BrowserContextPool get() {
+        BrowserContextPool pool = instance;
+        if (pool == null) {
+            throw new IllegalStateException("Browser context pool has not been started");
+        }
+        return pool;
+    }
+
+    /**
+     * Open a fresh browser context for the calling thread's scenario and return the (instrumented)
+     * driver, switched to the context's tab.
+     */
+    public WebDriver acquire() {
+        Worker worker = worker();
+        if (worker.contextId != null) {
+            release();
+        }
+        long start = System.nanoTime();
+        Map<String, Object> context = worker.raw.executeCdpCommand("Target.createBrowserContext", Collections.emptyMap());
+        String contextId = (String) context.get("browserContextId");
+        // Recorded before anything else can fail, so a half-opened context is still disposed
+        worker.contextId = contextId;
+        boolean opened = false;
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("url", "about:blank");
+            params.put("browserContextId", contextId);
+            String targetId = (String) worker.raw.executeCdpCommand("Target.createTarget", params).get("targetId");
+            // chromedriver window handles are DevTools target ids
+            worker.raw.switchTo().window(targetId);
+            BaseClass.prepareTarget(worker.raw, profile);
+            opened = true;
+        } finally {
+            if (!opened) {
+                release();
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        contexts.incrementAndGet();
+        totalCreateNanos.addAndGet(nanos);
+        maxCreateNanos.accumulateAndGet(nanos, Math::max);
+        logger.debug("Browser context {} ready in {} ms", contextId, TimeUnit.NANOSECONDS.toMillis(nanos));
+        return worker.instrumented;
+    }
+
+    /**
+     * Dispose the calling thread's browser context, closing its tab and dropping its cookies and
+     * storage. The worker's session stays attached for the next scenario.
+     */
+    public void release() {
+        Worker worker = workers.get();
+        if (worker == null || worker.contextId == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        String contextId = worker.contextId;
+        worker.contextId = null;
+        try {
+            // Step out of the tab first; disposing the context closes it
+            worker.raw.switchTo().window(worker.homeWindow);
+            worker.raw.executeCdpCommand("Target.disposeBrowserContext", Collections.singletonMap("browserContextId", contextId));
+            totalDisposeNanos.addAndGet(System.nanoTime() - start);
+        } catch (Exception e) {
+            logger.warn("Failed to dispose browser context {}, dropping the worker session: {}", contextId, e.getMessage());
+            discard(worker);
+            disposeThroughHost(contextId);
+        }
+    }
+
+    /**
+     * Dispose a context the worker session could not, so its tab, cookies and memory do not stay
+     * behind in the shared browser.
+     */
+    private void disposeThroughHost(String contextId) {
+        try {
+            synchronized (host) {
+                host.executeCdpCommand("Target.disposeBrowserContext", Collections.singletonMap("browserContextId", contextId));
+            }
+            logger.debug("Disposed browser context {} through the host session", contextId);
+        } catch (Exception e) {
+            logger.warn("Failed to dispose browser context {} through the host session, it is leaked: {}",
+                    contextId, e.getMessage());
+        }
+    }
+
+    public static synchronized void shutdown() {
+        BrowserContextPool pool = instance;
+        if (pool == null) {
+            return;
+        }
+        instance = null;
+        for (Worker worker : pool.allWorkers) {
+            pool.discard(worker);
+        }
+        try {
+            pool.host.quit();
+        } catch (Exception e) {
+            logger.debug("Failed to quit shared browser: {}", e.getMessage());
+        }
+        logger.info("Browser context pool stopped. {}", pool.getStats());
+    }
+
+    public String getStats() {
+        long count = contexts.get();
+        return String.format("contexts=%d, workers=%d, avgCreate=%.1fms, maxCreate=%dms, avgDispose=%.1fms",
+                count, allWorkers.size(),
+                count == 0 ? 0.0 : totalCreateNanos.get() / 1e6 / count,
+                TimeUnit.NANOSECONDS.toMillis(maxCreateNanos.get()),
+                count == 0 ? 0.0 : totalDisposeNanos.get() / 1e6 / count);
+    }
+
+    private Worker worker() {
+        Worker worker = workers.get();
+        if (worker == null) {
+            // Attaching does not launch Chrome; quitting an attached session leaves it running
+            worker = new Worker(new ChromeDriver(profile.toAttachOptions(debuggerAddress)));
+            workers.set(worker);
+            allWorkers.add(worker);
+            logger.debug("Attached worker session to shared browser ({} workers)", allWorkers.size());
+        }
+        return worker;
+    }
+
+    private void discard(Worker worker) {
+        allWorkers.remove(worker);
+        if (workers.get() == worker) {
+            workers.remove();
+        }
+        try {
+            worker.raw.quit();
+        } catch (Exception e) {
+            logger.debug("Failed to quit attached session: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.automation.base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browser-side performance data for the current page: Navigation Timing, Paint Timing, long
+ * tasks and Chrome's CDP Performance.getMetrics counters (JS heap, layouts, script and task
+ * time). Long tasks are only reported once they have happened, so a PerformanceObserver is
+ * registered through CDP for every document when the browser is launched ({@link #install}).
+ *
+ * <ul>
+ *   <li>-Dbrowser.perf: capture after page loads and at scenario end (default true)</li>
+ * </ul>
+ */
+public class BrowserPerformance {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserPerformance.class);
+    private static final boolean enabled =
+            Boolean.parseBoolean(System.getProperty("browser.perf", "true"));
+
+    // CDP metrics worth reporting; durations are in seconds and converted to ms
+    private static final List<String> CDP_COUNTERS = Arrays.asList(
+            "JSHeapUsedSize", "JSHeapTotalSize", "Nodes", "LayoutCount", "RecalcStyleCount");
+    private static final List<String> CDP_DURATIONS = Arrays.asList(
+            "LayoutDuration", "RecalcStyleDuration", "ScriptDuration", "TaskDuration");
+
+    private static final String LONG_TASK_OBSERVER_SCRIPT =
+            "(function() {"
+            + "  if (window.__automationLongTasks || !window.PerformanceObserver) return;"
+            + "  var tasks = window.__automationLongTasks = [];"
+            + "  try {"
+            + "    new PerformanceObserver(function(list) {"
+            + "      list.getEntries().forEach(function(e) { tasks.push(e.duration); });"
+            + "    }).observe({type: 'longtask', buffered: true});"
+            + "  } catch (e) {}"
+            + "})();";
+
+    // Times are milliseconds from navigation start; 0 means "not reached yet"
+    private static final String TIMING_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0] || {}, paint = {};"
+            + "performance.getEntriesByType('paint').forEach(function(p) { paint[p.name] = p.startTime; });"
+            + "var tasks = window.__automationLongTasks, total = 0, longest = 0;"
+            + "(tasks || []).forEach(function(d) { total += d; longest = Math.max(longest, d); });"
+            + "return {url: location.href,"
+            + " navigation: {responseStart: nav.responseStart || 0, domInteractive: nav.domInteractive || 0,"
+            + "   domContentLoaded: nav.domContentLoadedEventEnd || 0, loadEventEnd: nav.loadEventEnd || 0,"
+            + "   transferSize: nav.transferSize || 0},"
+            + " paint: {firstPaint: paint['first-paint'] || 0, firstContentfulPaint: paint['first-contentful-paint'] || 0},"
+            + " longTasks: tasks ? {count: tasks.length, totalMs: total, longestMs: longest} : null};";
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable the CDP Performance domain and register the long-task observer. Call on the raw
+     * ChromeDriver right after launch.
+     */
+    public static void install(WebDriver driver) {
+        if (!enabled || !(driver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Performance.enable", Collections.emptyMap());
+            cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("source", LONG_TASK_OBSERVER_SCRIPT));
+        } catch (Exception e) {
+            logger.warn("Could not enable browser performance capture: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Read the current page's timings and the browser's performance counters in two calls.
+     */
+    public static Snapshot capture(WebDriver driver) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        try {
+            Object timings = ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+            if (timings instanceof Map) {
+                ((Map<?, ?>) timings).forEach((key, value) -> data.put(String.valueOf(key), value));
+            }
+        } catch (Exception e) {
+            logger.debug("Could not read page timings: {}", e.getMessage());
+        }
+        WebDriver raw = driver instanceof WrapsDriver ? ((WrapsDriver) driver).getWrappedDriver() : driver;
+        if (raw instanceof HasCdp) {
+            try {
+                data.put("cdp", cdpMetrics(((HasCdp) raw).executeCdpCommand("Performance.getMetrics", Collections.emptyMap())));
+            } catch (Exception e) {
+                logger.debug("Could not read CDP performance metrics: {}", e.getMessage());
+            }
+        }
+        return new Snapshot(data);
+    }
+
+    /**
+     * Wait up to {@code timeout} for the document to leave the "loading" state, then capture.
+     */
+    public static Snapshot awaitInteractive(WebDriver driver, Duration timeout) {
+        try {
+            new WebDriverWait(driver, timeout, Duration.ofMillis(50)).until(d ->
+                    !"loading".equals(((JavascriptExecutor) d).executeScript("return document.readyState;")));
+        } catch (TimeoutException e) {
+            logger.debug("Document still loading after {}", timeout);
+        }
+        return capture(driver);
+    }
+
+    private static Map<String, Object> cdpMetrics(Map<String, Object> response) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Object list = response.get("metrics");
+        if (!(list instanceof Collection)) {
+            return metrics;
+        }
+        for (Object item : (Collection<?>) list) {
+            Map<?, ?> metric = (Map<?, ?>) item;
+            String name = String.valueOf(metric.get("name"));
+            double value = ((Number) metric.get("value")).doubleValue();
+            if (CDP_COUNTERS.contains(name)) {
+                metrics.put(name, (long) value);
+            } else if (CDP_DURATIONS.contains(name)) {
+                metrics.put(name + "Ms", Math.round(value * 100000) / 100.0);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * One capture, as nested maps that serialise straight to JSON.
+     */
+    public static class Snapshot {
+        private final Map<String, Object> data;
+
+        private Snapshot(Map<String, Object> data) {
+            this.data = data;
+        }
+
+        public boolean isEmpty() {
+            return data.isEmpty();
+        }
+
+        /**
+         * Milliseconds from navigation start until the DOM was interactive, or null if not yet.
+         */
+        public Double interactiveMillis() {
+            return positive(section("navigation").get("domInteractive"));
+        }
+
+        /**
+         * Milliseconds until the first contentful paint, or null if nothing was painted yet.
+         */
+        public Double firstContentfulPaintMillis() {
+            return positive(section("paint").get("firstContentfulPaint"));
+        }
+
+        /**
+         * Longest task that blocked the main thread, 0 if none; null when long tasks are not observed.
+         */
+        public Double longestTaskMillis() {
+            Map<?, ?> longTasks = section("longTasks");
+            return longTasks.isEmpty() ? null : ((Number) longTasks.get("longestMs")).doubleValue();
+        }
+
+        public String toJson() {
+            return new Json().toJson(data);
+        }
+
+        private Map<?, ?> section(String name) {
+            Object value = data.get(name);
+            return value instanceof Map ? (Map<?, ?>) value : Collections.emptyMap();
+        }
+
+        private static Double positive(Object value) {
+            return value instanceof Number && ((Number) value).doubleValue() > 0 ? ((Number) value).doubleValue() : null;
+        }
+    }
+}
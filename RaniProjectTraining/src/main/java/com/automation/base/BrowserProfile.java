@@ -0,0 +1,136 @@
+package com.automation.base;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named Chrome launch profiles. Selected with -Dbrowser.profile=&lt;name&gt; or per scenario with
+ * a {@code @profile:<name>} tag; the tag wins over the system property.
+ */
+public enum BrowserProfile {
+
+    /** The original headed setup: maximized window, normal page load. */
+    DEFAULT(false, PageLoadStrategy.NORMAL, false, false),
+
+    /** Headed launch with trimmed Chrome flags and eager page load. */
+    FAST(false, PageLoadStrategy.EAGER, true, false),
+
+    /** New headless mode with trimmed flags and eager page load. */
+    HEADLESS(true, PageLoadStrategy.EAGER, true, false),
+
+    /** Headless, no page-load wait and no images or web fonts. */
+    MINIMAL(true, PageLoadStrategy.NONE, true, true);
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserProfile.class);
+    private static final String TAG_PREFIX = "@profile:";
+    private static final List<String> BLOCKED_FONT_URLS = Arrays.asList("*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot");
+
+    private final boolean headless;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean trimmedFlags;
+    private final boolean blockImagesAndFonts;
+
+    BrowserProfile(boolean headless, PageLoadStrategy pageLoadStrategy, boolean trimmedFlags, boolean blockImagesAndFonts) {
+        this.headless = headless;
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.trimmedFlags = trimmedFlags;
+        this.blockImagesAndFonts = blockImagesAndFonts;
+    }
+
+    public ChromeOptions toOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        options.addArguments("--disable-notifications");
+        options.addArguments("--disable-popup-blocking");
+
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        if (trimmedFlags) {
+            // A fixed window size is cheaper and more reproducible than maximizing
+            options.addArguments("--window-size=1366,768");
+            options.addArguments("--disable-extensions");
+            options.addArguments("--disable-gpu");
+            options.addArguments("--disable-background-networking");
+            options.addArguments("--disable-default-apps");
+            options.addArguments("--disable-sync");
+            options.addArguments("--no-first-run");
+            options.addArguments("--mute-audio");
+        } else {
+            options.addArguments("--start-maximized");
+        }
+        if (blockImagesAndFonts) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+        return options;
+    }
+
+    /**
+     * Options for a session that attaches to an already running Chrome at {@code debuggerAddress}
+     * ("host:port") instead of launching one. Launch flags do not apply; the page load strategy does.
+     */
+    public ChromeOptions toAttachOptions(String debuggerAddress) {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        options.setExperimentalOption("debuggerAddress", debuggerAddress);
+        return options;
+    }
+
+    /**
+     * Settings that can only be applied once the browser is running. They are per page target,
+     * so they are applied again to every new browser context.
+     */
+    public void afterLaunch(WebDriver driver) {
+        if (blockImagesAndFonts && driver instanceof ChromeDriver) {
+            try {
+                ChromeDriver chrome = (ChromeDriver) driver;
+                chrome.executeCdpCommand("Network.enable", Collections.emptyMap());
+                chrome.executeCdpCommand("Network.setBlockedURLs", Collections.singletonMap("urls", BLOCKED_FONT_URLS));
+            } catch (Exception e) {
+                logger.warn("Could not block web fonts: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Profile from -Dbrowser.profile, or DEFAULT when unset.
+     */
+    public static BrowserProfile fromSystemProperty() {
+        return byName(System.getProperty("browser.profile", DEFAULT.name()));
+    }
+
+    /**
+     * Profile from a {@code @profile:<name>} scenario tag, falling back to -Dbrowser.profile.
+     */
+    public static BrowserProfile fromTags(Collection<String> tags) {
+        for (String tag : tags) {
+            if (tag.startsWith(TAG_PREFIX)) {
+                return byName(tag.substring(TAG_PREFIX.length()));
+            }
+        }
+        return fromSystemProperty();
+    }
+
+    public static BrowserProfile byName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown browser profile '" + name + "', expected one of "
+                    + Arrays.toString(values()), e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.automation.base;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the latency of every WebDriver command (findElement, click, sendKeys, get,
+ * executeScript, ...) through an EventFiringDecorator. Latencies go into HdrHistograms per
+ * command type, and per command tagged by scenario and by calling page-object method, and are
+ * written as JSON with p50/p95/p99 at suite end. The calling page-object classes are also kept
+ * per thread for test impact analysis. Disable with -Dwebdriver.metrics=false.
+ */
+public class CommandMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandMetrics.class);
+    private static final boolean enabled =
+            Boolean.parseBoolean(System.getProperty("webdriver.metrics", "true"));
+    private static final String PAGES_PACKAGE = "com.automation.pages.";
+
+    // Accessors that only hand back a helper object; they never reach chromedriver
+    private static final Set<String> IGNORED = new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals"));
+
+    private static final Map<String, Histogram> byCommand = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Histogram>> byScenario = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Histogram>> byPageMethod = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<String> currentScenario = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<Long>> callStarts = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<Set<String>> touchedPages = ThreadLocal.withInitial(HashSet::new);
+    private static final StackWalker stackWalker = StackWalker.getInstance();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Wrap a freshly launched driver so every command it serves is timed.
+     */
+    public static WebDriver instrument(WebDriver driver) {
+        if (!enabled) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(new LatencyListener()).decorate(driver);
+    }
+
+    /**
+     * @param scenarioKey identifies one scenario run, e.g. "Login.feature:12" (unique per outline row)
+     */
+    public static void setScenario(String scenarioKey) {
+        currentScenario.set(scenarioKey);
+    }
+
+    public static void clearScenario() {
+        currentScenario.remove();
+    }
+
+    /**
+     * Page-object classes (fully qualified) whose methods issued WebDriver commands on this
+     * thread since the previous call. Used to map scenarios to the page objects they exercise.
+     */
+    public static Set<String> drainTouchedPages() {
+        Set<String> pages = new TreeSet<>(touchedPages.get());
+        touchedPages.get().clear();
+        return pages;
+    }
+
+    /**
+     * Write all histograms as JSON (milliseconds) to {@code report}.
+     */
+    public static void writeReport(Path report) {
+        if (!enabled || byCommand.isEmpty()) {
+            return;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("commands", summarize(byCommand));
+        json.put("byScenario", summarizeTagged(byScenario));
+        json.put("byPageMethod", summarizeTagged(byPageMethod));
+        try {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            Files.write(report, new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+            logger.info("WebDriver command latencies written to {}", report);
+        } catch (IOException e) {
+            logger.error("Failed to write command metrics: {}", e.getMessage());
+        }
+    }
+
+    private static void record(String command, long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        histogram(byCommand, command).recordValue(micros);
+
+        String scenario = currentScenario.get();
+        if (scenario != null) {
+            histogram(byScenario.computeIfAbsent(scenario, key -> new ConcurrentHashMap<>()), command).recordValue(micros);
+        }
+        StackWalker.StackFrame pageFrame = callingPageFrame();
+        if (pageFrame != null) {
+            String pageClass = pageFrame.getClassName();
+            int nested = pageClass.indexOf('$');
+            touchedPages.get().add(nested < 0 ? pageClass : pageClass.substring(0, nested));
+            String pageMethod = pageClass.substring(PAGES_PACKAGE.length()) + "." + pageFrame.getMethodName();
+            histogram(byPageMethod.computeIfAbsent(pageMethod, key -> new ConcurrentHashMap<>()), command).recordValue(micros);
+        }
+    }
+
+    private static Histogram histogram(Map<String, Histogram> histograms, String command) {
+        return histograms.computeIfAbsent(command, key -> new ConcurrentHistogram(3));
+    }
+
+    /**
+     * First page-object frame on the stack, skipping lambdas so the enclosing method is reported.
+     */
+    private static StackWalker.StackFrame callingPageFrame() {
+        return stackWalker.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(PAGES_PACKAGE)
+                        && !frame.getMethodName().startsWith("lambda$"))
+                .findFirst()
+                .orElse(null));
+    }
+
+    private static Map<String, Object> summarize(Map<String, Histogram> histograms) {
+        Map<String, Object> summary = new TreeMap<>();
+        histograms.forEach((command, histogram) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.getTotalCount());
+            stats.put("p50Ms", toMillis(histogram.getValueAtPercentile(50)));
+            stats.put("p95Ms", toMillis(histogram.getValueAtPercentile(95)));
+            stats.put("p99Ms", toMillis(histogram.getValueAtPercentile(99)));
+            stats.put("maxMs", toMillis(histogram.getMaxValue()));
+            stats.put("meanMs", Math.round(histogram.getMean()) / 1000.0);
+            summary.put(command, stats);
+        });
+        return summary;
+    }
+
+    private static Map<String, Object> summarizeTagged(Map<String, Map<String, Histogram>> tagged) {
+        Map<String, Object> summary = new TreeMap<>();
+        tagged.forEach((tag, histograms) -> summary.put(tag, summarize(histograms)));
+        return summary;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String commandName(Object target, Method method) {
+        if (target instanceof WebDriver.Navigation) {
+            return "navigate." + method.getName();
+        }
+        if (target instanceof WebDriver.Options || target instanceof WebDriver.Timeouts
+                || target instanceof WebDriver.Window) {
+            return "manage." + method.getName();
+        }
+        if (target instanceof WebDriver.TargetLocator) {
+            return "switchTo." + method.getName();
+        }
+        return method.getName();
+    }
+
+    private static class LatencyListener implements WebDriverListener {
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            callStarts.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            finish(target, method);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            finish(target, method);
+        }
+
+        private void finish(Object target, Method method) {
+            Long start = callStarts.get().poll();
+            if (start == null || IGNORED.contains(method.getName())) {
+                return;
+            }
+            record(commandName(target, method), System.nanoTime() - start);
+        }
+    }
+}
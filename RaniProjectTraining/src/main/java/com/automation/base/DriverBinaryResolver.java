@@ -0,0 +1,279 @@
+package com.automation.base;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the chromedriver binary once per JVM instead of running WebDriverManager for every
+ * browser launch. The resolved path, driver version and installed Chrome version are persisted
+ * in a small properties file so later runs skip resolution while the cached binary is still
+ * valid. A cached entry is only valid for the Chrome major version it was resolved for, so an
+ * auto-updated Chrome gets a matching driver instead of failing every session.
+ *
+ * <ul>
+ *   <li>-Ddriver.cache.file: cache location (default ~/.automation/chromedriver-cache.properties)</li>
+ *   <li>-Ddriver.cache.ttl.hours: how long a cached entry is trusted online (default 24)</li>
+ *   <li>-Ddriver.offline=true: never touch the network; use the cache or webdriver.chrome.driver</li>
+ *   <li>-Ddriver.browser.binary: Chrome executable used to read the browser version (default: searched)</li>
+ * </ul>
+ */
+public class DriverBinaryResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverBinaryResolver.class);
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.\\d+\\.\\d+(\\.\\d+)?");
+
+    private static volatile String driverPath;
+    private static volatile String driverVersion;
+    private static volatile long resolutionMillis = -1;
+
+    /**
+     * Resolve the chromedriver path (first call only) and publish it as webdriver.chrome.driver.
+     *
+     * @return absolute path to the chromedriver binary
+     */
+    public static String resolve() {
+        String resolved = driverPath;
+        if (resolved != null) {
+            return resolved;
+        }
+        synchronized (DriverBinaryResolver.class) {
+            if (driverPath == null) {
+                long start = System.nanoTime();
+                String path = resolveUncached();
+                System.setProperty(DRIVER_PROPERTY, path);
+                resolutionMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                driverPath = path;
+                logger.info("Resolved chromedriver {} ({}) in {} ms", path, driverVersion, resolutionMillis);
+            }
+            return driverPath;
+        }
+    }
+
+    public static String getDriverVersion() {
+        return driverVersion;
+    }
+
+    /**
+     * @return time spent resolving the driver in this JVM, or -1 if not resolved yet
+     */
+    public static long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    private static String resolveUncached() {
+        String explicit = System.getProperty(DRIVER_PROPERTY);
+        if (isUsable(explicit)) {
+            logger.info("Using chromedriver from -D{}", DRIVER_PROPERTY);
+            return explicit;
+        }
+
+        Path cacheFile = cacheFile();
+        boolean offline = Boolean.getBoolean("driver.offline");
+        Properties cached = readCache(cacheFile);
+        String browserVersion = browserVersion();
+        if (cached != null && isUsable(cached.getProperty("driverPath"))) {
+            String cachedDriverVersion = cached.getProperty("driverVersion");
+            if (!matchesBrowser(cached, browserVersion)) {
+                if (offline) {
+                    throw new IllegalStateException("Offline mode: cached chromedriver " + cachedDriverVersion
+                            + " does not match browser " + browserVersion + "; set -D" + DRIVER_PROPERTY
+                            + " to a matching driver or refresh " + cacheFile + " online");
+                }
+                logger.info("Cached chromedriver {} was resolved for Chrome {}, installed Chrome is {}; resolving again",
+                        cachedDriverVersion, cached.getProperty("browserVersion"), browserVersion);
+            } else if (offline || !isExpired(cached)) {
+                driverVersion = cachedDriverVersion;
+                logger.info("Using cached chromedriver from {}", cacheFile);
+                return cached.getProperty("driverPath");
+            }
+        }
+
+        if (offline) {
+            throw new IllegalStateException("Offline mode: no valid chromedriver in " + cacheFile
+                    + " and -D" + DRIVER_PROPERTY + " is not set");
+        }
+
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        manager.setup();
+        String path = manager.getDownloadedDriverPath();
+        driverVersion = manager.getDownloadedDriverVersion();
+        writeCache(cacheFile, path, driverVersion, browserVersion);
+        return path;
+    }
+
+    /**
+     * A cached entry is valid for the Chrome major version it was resolved for. When the browser
+     * version cannot be read, the entry is checked against nothing and only the TTL applies.
+     */
+    private static boolean matchesBrowser(Properties cached, String browserVersion) {
+        if (browserVersion == null) {
+            return true;
+        }
+        String cachedBrowser = cached.getProperty("browserVersion", "");
+        String expected = majorVersion(cachedBrowser.isEmpty() ? cached.getProperty("driverVersion") : cachedBrowser);
+        return majorVersion(browserVersion).equals(expected);
+    }
+
+    private static String majorVersion(String version) {
+        if (version == null) {
+            return "";
+        }
+        int dot = version.indexOf('.');
+        return dot < 0 ? version.trim() : version.substring(0, dot).trim();
+    }
+
+    /**
+     * Read the installed Chrome version with a local call (--version, or the registry on
+     * Windows), without starting the browser.
+     *
+     * @return e.g. "120.0.6099.109", or null if Chrome was not found
+     */
+    private static String browserVersion() {
+        for (List<String> command : versionCommands()) {
+            Path output = null;
+            try {
+                // Output goes to a file so a hung command cannot block the read; the timeout applies either way
+                output = Files.createTempFile("chrome-version", ".txt");
+                Process process = new ProcessBuilder(command)
+                        .redirectErrorStream(true)
+                        .redirectOutput(output.toFile())
+                        .start();
+                process.getOutputStream().close();
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    logger.debug("{} did not answer within 10 s", command.get(0));
+                    continue;
+                }
+                Matcher matcher = VERSION.matcher(new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+                if (process.exitValue() == 0 && matcher.find()) {
+                    return matcher.group();
+                }
+            } catch (IOException e) {
+                logger.debug("Could not run {}: {}", command.get(0), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                deleteQuietly(output);
+            }
+        }
+        logger.warn("Could not read the installed Chrome version; cached chromedriver is checked by TTL only");
+        return null;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static List<List<String>> versionCommands() {
+        List<List<String>> commands = new ArrayList<>();
+        String binary = System.getProperty("driver.browser.binary");
+        if (binary != null) {
+            commands.add(List.of(binary, "--version"));
+            return commands;
+        }
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        if (os.contains("win")) {
+            for (String hive : new String[]{"HKCU", "HKLM"}) {
+                commands.add(List.of("reg", "query", hive + "\\Software\\Google\\Chrome\\BLBeacon", "/v", "version"));
+            }
+        } else if (os.contains("mac")) {
+            commands.add(List.of("/Applications/Google Chrome.app/Contents/MacOS/Google Chrome", "--version"));
+        } else {
+            for (String name : new String[]{"google-chrome", "google-chrome-stable", "chromium", "chromium-browser"}) {
+                commands.add(List.of(name, "--version"));
+            }
+        }
+        return commands;
+    }
+
+    private static Path cacheFile() {
+        String configured = System.getProperty("driver.cache.file");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".automation", "chromedriver-cache.properties");
+    }
+
+    private static boolean isUsable(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            return false;
+        }
+        File file = new File(path);
+        return file.isFile() && file.canExecute();
+    }
+
+    private static boolean isExpired(Properties cached) {
+        long ttlMillis = Duration.ofHours(Long.getLong("driver.cache.ttl.hours", 24)).toMillis();
+        try {
+            long resolvedAt = Long.parseLong(cached.getProperty("resolvedAt", "0"));
+            return System.currentTimeMillis() - resolvedAt > ttlMillis;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static Properties readCache(Path cacheFile) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(cacheFile)) {
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties;
+        } catch (IOException e) {
+            logger.warn("Could not read driver cache {}: {}", cacheFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeCache(Path cacheFile, String path, String version, String browserVersion) {
+        Properties properties = new Properties();
+        properties.setProperty("driverPath", path);
+        properties.setProperty("driverVersion", version == null ? "" : version);
+        properties.setProperty("browserVersion", browserVersion == null ? "" : browserVersion);
+        properties.setProperty("resolvedAt", String.valueOf(System.currentTimeMillis()));
+        try {
+            Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+            // Write to a temp file first so parallel JVMs never read a half-written cache
+            Path temp = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), "chromedriver", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    properties.store(out, "Resolved chromedriver");
+                }
+                Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write driver cache {}: {}", cacheFile, e.getMessage());
+        }
+    }
+}
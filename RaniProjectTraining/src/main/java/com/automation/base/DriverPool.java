@@ -0,0 +1,249 @@
+package com.automation.base;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of pre-warmed browsers. Browsers are launched in the background when the suite starts,
+ * leased to scenarios as they become free, and replaced asynchronously when they crash or are
+ * recycled, so scenarios only block on browser startup when every browser is in use. If every
+ * launch fails, leases fail at once with the launch error instead of waiting out the timeout.
+ */
+public class DriverPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverPool.class);
+    private static final long LEASE_TIMEOUT_SECONDS = 120;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    private static volatile DriverPool instance;
+
+    private final int size;
+    private final int recycleAfter;
+    private final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+    private final Map<WebDriver, AtomicInteger> uses = new ConcurrentHashMap<>();
+    private final ExecutorService launcher;
+    private final AtomicInteger pendingLaunches = new AtomicInteger();
+    private volatile Exception lastLaunchError;
+    private volatile boolean closed;
+
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong replacements = new AtomicLong();
+
+    private DriverPool(int size, int recycleAfter) {
+        this.size = size;
+        this.recycleAfter = recycleAfter;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.launcher = Executors.newFixedThreadPool(Math.min(size, 4), runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start the shared pool and begin launching browsers in the background. Calling it again
+     * while a pool is running is a no-op.
+     *
+     * @param size         number of browsers to keep warm
+     * @param recycleAfter quit and replace a browser after this many leases (0 = never)
+     */
+    public static synchronized void start(int size, int recycleAfter) {
+        if (instance != null || size <= 0) {
+            return;
+        }
+        DriverPool pool = new DriverPool(size, recycleAfter);
+        for (int i = 0; i < size; i++) {
+            pool.launchAsync();
+        }
+        instance = pool;
+        logger.info("Driver pool started, warming {} browsers", size);
+    }
+
+    public static boolean isRunning() {
+        return instance != null;
+    }
+
+    public static DriverPool get() {
+        DriverPool pool = instance;
+        if (pool == null) {
+            throw new IllegalStateException("Driver pool has not been started");
+        }
+        return pool;
+    }
+
+    /**
+     * Take a live browser from the pool, waiting for one to be launched or returned if needed.
+     */
+    public WebDriver lease() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(LEASE_TIMEOUT_SECONDS);
+        try {
+            while (true) {
+                WebDriver candidate = idle.poll(100, TimeUnit.MILLISECONDS);
+                if (candidate == null) {
+                    Exception launchError = lastLaunchError;
+                    // No browser alive, none being launched and the last launch failed: nothing can arrive
+                    if (launchError != null && uses.isEmpty() && pendingLaunches.get() == 0) {
+                        throw new RuntimeException("No pooled browser available, launching failed", launchError);
+                    }
+                    if (System.nanoTime() > deadline) {
+                        throw new RuntimeException("Timed out waiting " + LEASE_TIMEOUT_SECONDS + "s for a pooled browser");
+                    }
+                    continue;
+                }
+                if (isAlive(candidate)) {
+                    recordWait(System.nanoTime() - start);
+                    return candidate;
+                }
+                logger.warn("Discarding crashed pooled browser");
+                discard(candidate);
+                launchAsync();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a pooled browser", e);
+        }
+    }
+
+    /**
+     * Return a browser after a scenario. It is reset and put back in the pool, or quit and
+     * replaced in the background when {@code recycle} is set or its lease budget is spent.
+     */
+    public void giveBack(WebDriver driver, boolean recycle) {
+        if (closed) {
+            // Handed back after shutdown(), e.g. by a late @After hook; nothing will quit it later
+            discard(driver);
+            return;
+        }
+        AtomicInteger count = uses.get(driver);
+        int used = count == null ? 0 : count.incrementAndGet();
+        if (!recycle && (recycleAfter <= 0 || used < recycleAfter)) {
+            try {
+                BaseClass.resetSession(driver);
+                idle.offer(driver);
+                if (closed && idle.remove(driver)) {
+                    // shutdown() ran during the reset and may have quit the pool without it
+                    discard(driver);
+                }
+                return;
+            } catch (Exception e) {
+                logger.warn("Failed to reset pooled browser, replacing it: {}", e.getMessage());
+            }
+        }
+        try {
+            launcher.submit(() -> discard(driver));
+        } catch (RejectedExecutionException e) {
+            discard(driver);
+            return;
+        }
+        launchAsync();
+    }
+
+    public static synchronized void shutdown() {
+        DriverPool pool = instance;
+        if (pool == null) {
+            return;
+        }
+        instance = null;
+        pool.closed = true;
+        pool.launcher.shutdownNow();
+        try {
+            // A launch already in createDriver() cannot be interrupted; let it finish and see `closed`
+            if (!pool.launcher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Browser launches still running after {}s; they quit when they finish", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (WebDriver driver : pool.uses.keySet()) {
+            quit(driver);
+        }
+        pool.uses.clear();
+        pool.idle.clear();
+        logger.info("Driver pool stopped. {}", pool.getStats());
+    }
+
+    public String getStats() {
+        long count = leases.get();
+        long avgMillis = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count);
+        return String.format("size=%d, leases=%d, avgWait=%dms, maxWait=%dms, replacements=%d",
+                size, count, avgMillis, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), replacements.get());
+    }
+
+    private void launchAsync() {
+        if (launcher.isShutdown()) {
+            return;
+        }
+        pendingLaunches.incrementAndGet();
+        try {
+            launcher.submit(() -> {
+                try {
+                    WebDriver driver = BaseClass.createDriver();
+                    if (closed) {
+                        // The pool shut down while this browser was starting
+                        quit(driver);
+                        return;
+                    }
+                    uses.put(driver, new AtomicInteger());
+                    lastLaunchError = null;
+                    idle.offer(driver);
+                    logger.debug("Pooled browser ready ({} idle)", idle.size());
+                } catch (Exception e) {
+                    lastLaunchError = e;
+                    logger.error("Failed to launch pooled browser: {}", e.getMessage());
+                } finally {
+                    pendingLaunches.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingLaunches.decrementAndGet();
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        if (uses.remove(driver) != null) {
+            replacements.incrementAndGet();
+        }
+        quit(driver);
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Failed to quit pooled browser: {}", e.getMessage());
+        }
+    }
+
+    private void recordWait(long nanos) {
+        leases.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        if (nanos > TimeUnit.MILLISECONDS.toNanos(50)) {
+            logger.info("Waited {}ms for a pooled browser", TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.automation.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Locator to WebElement cache scoped to one page object instance. A cached handle is revalidated
+ * with the cheap condition check only (no findElement), re-resolved through SmartWait when it has
+ * gone stale, and the whole cache is dropped whenever BaseClass navigates to a new document.
+ */
+public class ElementCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElementCache.class);
+
+    private static final LongAdder totalHits = new LongAdder();
+    private static final LongAdder totalMisses = new LongAdder();
+    private static final LongAdder totalStale = new LongAdder();
+
+    private final SmartWait wait;
+    private final Map<By, WebElement> elements = new HashMap<>();
+    private long epoch = BaseClass.getNavigationEpoch();
+    private long hits;
+    private long misses;
+    private long stale;
+
+    public ElementCache(SmartWait wait) {
+        this.wait = wait;
+    }
+
+    public WebElement present(By locator) {
+        return get(locator, SmartWait.Condition.PRESENT);
+    }
+
+    public WebElement visible(By locator) {
+        return get(locator, SmartWait.Condition.VISIBLE);
+    }
+
+    public WebElement clickable(By locator) {
+        return get(locator, SmartWait.Condition.CLICKABLE);
+    }
+
+    /**
+     * Return the element for {@code locator} once it meets {@code condition}, from the cache when
+     * the cached handle is still attached and already meets it.
+     */
+    public WebElement get(By locator, SmartWait.Condition condition) {
+        invalidateIfNavigated();
+        WebElement cached = elements.get(locator);
+        if (cached != null) {
+            try {
+                if (SmartWait.meets(cached, condition)) {
+                    hits++;
+                    totalHits.increment();
+                    return cached;
+                }
+            } catch (StaleElementReferenceException e) {
+                markStale(locator);
+            }
+        }
+        misses++;
+        totalMisses.increment();
+        WebElement element = wait.until(locator, condition);
+        elements.put(locator, element);
+        return element;
+    }
+
+    /**
+     * Run an action on the element, re-resolving it once if it goes stale mid-action.
+     */
+    public void run(By locator, SmartWait.Condition condition, Consumer<WebElement> action) {
+        apply(locator, condition, element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+    /**
+     * Apply a function to the element, re-resolving it once if it goes stale mid-call.
+     */
+    public <T> T apply(By locator, SmartWait.Condition condition, Function<WebElement, T> action) {
+        try {
+            return action.apply(get(locator, condition));
+        } catch (StaleElementReferenceException e) {
+            markStale(locator);
+            return action.apply(get(locator, condition));
+        }
+    }
+
+    public void invalidate(By locator) {
+        elements.remove(locator);
+    }
+
+    public void invalidate() {
+        elements.clear();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * JVM-wide counters; every hit is one findElement round trip saved.
+     */
+    public static String getStats() {
+        long hitCount = totalHits.sum();
+        long lookups = hitCount + totalMisses.sum();
+        return String.format("hits=%d, misses=%d, stale=%d, hitRate=%.1f%%",
+                hitCount, totalMisses.sum(), totalStale.sum(), lookups == 0 ? 0.0 : 100.0 * hitCount / lookups);
+    }
+
+    private void invalidateIfNavigated() {
+        long current = BaseClass.getNavigationEpoch();
+        if (current != epoch) {
+            elements.clear();
+            epoch = current;
+        }
+    }
+
+    private void markStale(By locator) {
+        stale++;
+        totalStale.increment();
+        elements.remove(locator);
+        logger.debug("Cached element went stale, re-resolving {}", locator);
+    }
+}
@@ -0,0 +1,255 @@
+package com.automation.base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Captures what the browser looked like when a scenario failed: a screenshot, the DOM and the
+ * console. The capture itself is one burst on the scenario thread (a screenshot plus a single
+ * script call); JPEG encoding, gzip and file writes run on a background executor so the worker
+ * can release its browser straight away.
+ *
+ * <p>Console messages are collected by a script registered through CDP when the browser is
+ * launched ({@link #installConsoleCapture}), so messages logged before the failure are available.
+ *
+ * <ul>
+ *   <li>-Dfailure.artifacts: capture on failure (default true)</li>
+ *   <li>-Dfailure.artifacts.dir: output directory (default target/failure-artifacts)</li>
+ *   <li>-Dfailure.artifacts.jpegQuality: screenshot quality from 0 to 1 (default 0.7)</li>
+ * </ul>
+ */
+public class FailureArtifacts {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailureArtifacts.class);
+    private static final boolean enabled =
+            Boolean.parseBoolean(System.getProperty("failure.artifacts", "true"));
+    private static final float jpegQuality =
+            Float.parseFloat(System.getProperty("failure.artifacts.jpegQuality", "0.7"));
+    private static final int MAX_CONSOLE_ENTRIES = 500;
+
+    // Wraps console.* and records uncaught errors into window.__automationConsole on every new document
+    private static final String CONSOLE_CAPTURE_SCRIPT =
+            "(function() {"
+            + "  if (window.__automationConsole) return;"
+            + "  var entries = window.__automationConsole = [];"
+            + "  function record(level, text) {"
+            + "    if (entries.length < " + MAX_CONSOLE_ENTRIES + ") entries.push(new Date().toISOString() + ' ' + level + ' ' + text);"
+            + "  }"
+            + "  ['log', 'info', 'warn', 'error', 'debug'].forEach(function(level) {"
+            + "    var original = console[level];"
+            + "    console[level] = function() {"
+            + "      try { record(level.toUpperCase(), Array.prototype.map.call(arguments, String).join(' ')); } catch (e) {}"
+            + "      return original.apply(console, arguments);"
+            + "    };"
+            + "  });"
+            + "  window.addEventListener('error', function(e) {"
+            + "    record('UNCAUGHT', e.message + ' (' + e.filename + ':' + e.lineno + ')');"
+            + "  });"
+            + "})();";
+
+    private static final String SNAPSHOT_SCRIPT =
+            "return {url: location.href, dom: document.documentElement.outerHTML,"
+            + " console: window.__automationConsole || ['console capture not installed']};";
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService writer = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "failure-artifacts-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Queue<Future<?>> pending = new ConcurrentLinkedQueue<>();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Register the console capture script for every document the browser loads. Call on the raw
+     * ChromeDriver right after launch.
+     */
+    public static void installConsoleCapture(WebDriver driver) {
+        if (!enabled || !(driver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("source", CONSOLE_CAPTURE_SCRIPT));
+        } catch (Exception e) {
+            logger.warn("Could not install console capture: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Grab a screenshot, the DOM and the console from {@code driver} and write them in the
+     * background under {@code <dir>/<name>/}. Returns as soon as the browser has been read.
+     */
+    public static Capture capture(WebDriver driver, String name) {
+        Path dir = Paths.get(System.getProperty("failure.artifacts.dir", "target/failure-artifacts"))
+                .resolve(name.replaceAll("[^A-Za-z0-9._-]", "_")).toAbsolutePath();
+        Capture capture = new Capture(dir);
+        try {
+            capture.png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            logger.warn("Could not take failure screenshot: {}", e.getMessage());
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT);
+            if (result instanceof Map) {
+                Map<?, ?> snapshot = (Map<?, ?>) result;
+                capture.url = String.valueOf(snapshot.get("url"));
+                capture.dom = (String) snapshot.get("dom");
+                if (snapshot.get("console") instanceof Collection) {
+                    for (Object entry : (Collection<?>) snapshot.get("console")) {
+                        capture.console.add(String.valueOf(entry));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read DOM and console after failure: {}", e.getMessage());
+        }
+        pending.add(writer.submit(() -> write(capture)));
+        return capture;
+    }
+
+    /**
+     * Wait for background writes to finish, e.g. before the JVM exits at suite end.
+     */
+    public static void awaitWrites(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Future<?> future;
+        while ((future = pending.poll()) != null) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("Gave up waiting for failure artifacts after {}", timeout);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warn("Failed to write failure artifacts: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void write(Capture capture) {
+        try {
+            Files.createDirectories(capture.dir);
+            if (capture.png != null) {
+                writeJpeg(capture.png, capture.screenshotFile());
+            }
+            if (capture.dom != null) {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(capture.domFile()))) {
+                    out.write(capture.dom.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            Files.write(capture.consoleFile(), capture.consoleText().getBytes(StandardCharsets.UTF_8));
+            logger.info("Failure artifacts written to {}", capture.dir);
+        } catch (IOException e) {
+            logger.error("Failed to write failure artifacts to {}: {}", capture.dir, e.getMessage());
+        }
+    }
+
+    private static void writeJpeg(byte[] png, Path file) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            throw new IOException("screenshot is not a readable PNG");
+        }
+        // JPEG has no alpha channel
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(source, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        ImageWriter jpeg = ImageIO.getImageWritersByFormatName("jpeg").next();
+        // Closing the ImageOutputStream does not close the stream it wraps
+        try (OutputStream fileOut = Files.newOutputStream(file);
+             ImageOutputStream out = ImageIO.createImageOutputStream(fileOut)) {
+            ImageWriteParam param = jpeg.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            jpeg.setOutput(out);
+            jpeg.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            jpeg.dispose();
+        }
+    }
+
+    /**
+     * What was read from the browser, and where it will be written.
+     */
+    public static class Capture {
+        private final Path dir;
+        private final List<String> console = new ArrayList<>();
+        private byte[] png;
+        private String dom;
+        private String url;
+
+        private Capture(Path dir) {
+            this.dir = dir;
+        }
+
+        public boolean hasScreenshot() {
+            return png != null;
+        }
+
+        public boolean hasDom() {
+            return dom != null;
+        }
+
+        public Path screenshotFile() {
+            return dir.resolve("screenshot.jpg");
+        }
+
+        public Path domFile() {
+            return dir.resolve("dom.html.gz");
+        }
+
+        public Path consoleFile() {
+            return dir.resolve("console.log");
+        }
+
+        public String consoleText() {
+            StringBuilder text = new StringBuilder("URL: ").append(url).append('\n');
+            console.forEach(entry -> text.append(entry).append('\n'));
+            return text.toString();
+        }
+    }
+}
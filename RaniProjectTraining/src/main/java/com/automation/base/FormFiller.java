@@ -0,0 +1,152 @@
+package com.automation.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills several form fields in one WebDriver round trip. Script-mode fields are set in a single
+ * executeScript call through the element's native value setter, followed by real bubbling
+ * {@code input} and {@code change} events so the page's handlers run as if the user typed.
+ * Fields marked NATIVE (or with a locator the script cannot evaluate) are typed with sendKeys.
+ *
+ * <p>A page object can also describe its form once as named fields and fill it from a map of
+ * values with {@link #fill(Map, Set)}.
+ */
+public class FormFiller {
+
+    public enum Mode { SCRIPT, NATIVE }
+
+    private static final Logger logger = LoggerFactory.getLogger(FormFiller.class);
+
+    // arguments[0] = [[strategy, selector, value], ...]; returns selectors that were not found
+    private static final String FILL_SCRIPT =
+            "var fields = arguments[0], missing = [];"
+            + "function find(strategy, selector) {"
+            + "  if (strategy === 'id') return document.getElementById(selector);"
+            + "  if (strategy === 'css') return document.querySelector(selector);"
+            + "  return document.evaluate(selector, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "}"
+            + "for (var i = 0; i < fields.length; i++) {"
+            + "  var el = find(fields[i][0], fields[i][1]);"
+            + "  if (!el) { missing.push(fields[i][1]); continue; }"
+            + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype"
+            + "      : el instanceof HTMLSelectElement ? HTMLSelectElement.prototype : HTMLInputElement.prototype;"
+            + "  el.focus();"
+            + "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, fields[i][2]);"
+            + "  el.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "  el.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "  el.blur();"
+            + "}"
+            + "return missing;";
+
+    private final WebDriver driver;
+    private final SmartWait wait;
+    private final List<Field> fields = new ArrayList<>();
+    private final String formName;
+    private final Map<String, By> namedFields;
+
+    public FormFiller(WebDriver driver, SmartWait wait) {
+        this(driver, wait, "", Collections.emptyMap());
+    }
+
+    /**
+     * @param formName    used in messages, e.g. "login"
+     * @param namedFields locator of each field by name, for {@link #fill(Map, Set)}
+     */
+    public FormFiller(WebDriver driver, SmartWait wait, String formName, Map<String, By> namedFields) {
+        this.driver = driver;
+        this.wait = wait;
+        this.formName = formName;
+        this.namedFields = namedFields;
+    }
+
+    public FormFiller field(By locator, String value) {
+        return field(locator, value, Mode.SCRIPT);
+    }
+
+    public FormFiller field(By locator, String value, Mode mode) {
+        fields.add(new Field(locator, value == null ? "" : value, mode));
+        return this;
+    }
+
+    /**
+     * Fill every queued field: all script-mode fields in one call, then native fields in order.
+     */
+    public void fill() {
+        if (fields.isEmpty()) {
+            return;
+        }
+        // One wait on the first field makes sure the form is shown before filling it
+        wait.clickable(fields.get(0).locator);
+
+        List<List<String>> scripted = new ArrayList<>();
+        List<Field> typed = new ArrayList<>();
+        for (Field field : fields) {
+            String[] strategy = SmartWait.scriptStrategy(field.locator);
+            if (field.mode == Mode.SCRIPT && strategy != null) {
+                scripted.add(Arrays.asList(strategy[0], strategy[1], field.value));
+            } else {
+                typed.add(field);
+            }
+        }
+
+        if (!scripted.isEmpty()) {
+            Object missing = ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, scripted);
+            if (missing instanceof List && !((List<?>) missing).isEmpty()) {
+                throw new RuntimeException("Form fields not found: " + missing);
+            }
+        }
+        for (Field field : typed) {
+            WebElement element = wait.clickable(field.locator);
+            element.clear();
+            element.sendKeys(field.value);
+        }
+        logger.debug("Filled {} fields by script and {} natively", scripted.size(), typed.size());
+    }
+
+    /**
+     * Fill named fields in one WebDriver round trip. Fields named in {@code nativeFields} are
+     * typed with sendKeys instead. Independent of any fields queued with {@link #field}.
+     */
+    public void fill(Map<String, String> values, Set<String> nativeFields) {
+        try {
+            FormFiller filler = new FormFiller(driver, wait);
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                By locator = namedFields.get(entry.getKey());
+                if (locator == null) {
+                    throw new IllegalArgumentException("Unknown " + formName + " form field: " + entry.getKey());
+                }
+                Mode mode = nativeFields.contains(entry.getKey()) ? Mode.NATIVE : Mode.SCRIPT;
+                filler.field(locator, entry.getValue(), mode);
+            }
+            filler.fill();
+            logger.debug("Filled {} form fields: {}", formName, values.keySet());
+        } catch (Exception e) {
+            logger.error("Failed to fill {} form: {}", formName, e.getMessage());
+            throw new RuntimeException("Failed to fill " + formName + " form", e);
+        }
+    }
+
+    private static class Field {
+        private final By locator;
+        private final String value;
+        private final Mode mode;
+
+        private Field(By locator, String value, Mode mode) {
+            this.locator = locator;
+            this.value = value;
+            this.mode = mode;
+        }
+    }
+}
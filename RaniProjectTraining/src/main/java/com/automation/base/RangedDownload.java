@@ -0,0 +1,266 @@
+package com.automation.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads one large object as parallel byte-range GETs written straight into a preallocated
+ * file with positional FileChannel writes, so a single slow connection no longer limits the
+ * transfer. Every range is pinned to the object's ETag (If-Match), a failed range is retried on
+ * its own, and the finished file is checked against the ETag. A single-part ETag is the MD5 of
+ * the content. A multipart ETag ("md5-N") is the MD5 of the N part MD5s, so it is rebuilt from
+ * the file using the upload's part size, read with a HEAD request for part 1. Objects encrypted
+ * with SSE-KMS or SSE-C have ETags that are not MD5s at all; for those only the size is checked.
+ */
+class RangedDownload {
+
+    private static final Logger logger = LoggerFactory.getLogger(RangedDownload.class);
+    private static final Pattern SINGLE_PART_ETAG = Pattern.compile("\"?([0-9a-fA-F]{32})\"?");
+    private static final Pattern MULTIPART_ETAG = Pattern.compile("\"?([0-9a-fA-F]{32})-(\\d+)\"?");
+
+    private final S3AsyncClient s3AsyncClient;
+    private final String bucketName;
+    private final long partSize;
+    private final int concurrency;
+    private final int attempts;
+
+    RangedDownload(S3AsyncClient s3AsyncClient, String bucketName, long partSize, int concurrency, int attempts) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucketName = bucketName;
+        this.partSize = partSize;
+        this.concurrency = concurrency;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Download {@code size} bytes of {@code objectKey} into {@code file}, replacing it.
+     *
+     * @return Bytes transferred
+     */
+    CompletableFuture<Long> download(String objectKey, String eTag, long size, Path file) {
+        long start = System.nanoTime();
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+            if (size > 0) {
+                // Extend to full length up front so parts can land in any order
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        int parts = (int) ((size + partSize - 1) / partSize);
+        AtomicInteger nextPart = new AtomicInteger();
+        // Set from the part responses when the object's encryption makes its ETag something other than an MD5
+        AtomicReference<String> encryption = new AtomicReference<>();
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(concurrency, Math.max(parts, 1))];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = nextPart(objectKey, eTag, size, parts, nextPart, encryption, channel);
+        }
+        return CompletableFuture.allOf(workers)
+                .whenComplete((ignored, error) -> close(channel))
+                .thenCompose(ignored -> encryption.get() != null
+                        ? CompletableFuture.completedFuture(0L)
+                        : uploadPartSize(objectKey, eTag))
+                .thenApply(uploadPartSize -> {
+                    verify(objectKey, eTag, size, uploadPartSize, encryption.get(), file);
+                    long nanos = System.nanoTime() - start;
+                    logger.debug("Downloaded {} in {} ranges: {} bytes in {} ms ({} MB/s)", objectKey, parts, size,
+                            TimeUnit.NANOSECONDS.toMillis(nanos), String.format("%.1f", size / 1e6 / (nanos / 1e9)));
+                    return size;
+                });
+    }
+
+    // Each worker takes the next part until none are left, keeping at most `concurrency` in flight
+    private CompletableFuture<Void> nextPart(String objectKey, String eTag, long size, int parts,
+                                             AtomicInteger nextPart, AtomicReference<String> encryption,
+                                             FileChannel channel) {
+        int part = nextPart.getAndIncrement();
+        if (part >= parts) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long first = part * partSize;
+        long last = Math.min(size, first + partSize) - 1;
+        return downloadPart(objectKey, eTag, first, last, encryption, channel, 1)
+                .thenCompose(ignored -> nextPart(objectKey, eTag, size, parts, nextPart, encryption, channel));
+    }
+
+    private CompletableFuture<Void> downloadPart(String objectKey, String eTag, long first, long last,
+                                                 AtomicReference<String> encryption, FileChannel channel, int attempt) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .range("bytes=" + first + "-" + last)
+                .ifMatch(eTag)
+                .build();
+        long[] position = {first};
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toPublisher())
+                .thenCompose(publisher -> {
+                    String opaque = opaqueETagEncryption(publisher.response());
+                    if (opaque != null) {
+                        encryption.set(opaque);
+                    }
+                    return publisher.subscribe(buffer -> {
+                        try {
+                            while (buffer.hasRemaining()) {
+                                position[0] += channel.write(buffer, position[0]);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                })
+                .thenRun(() -> {
+                    if (position[0] != last + 1) {
+                        throw new IllegalStateException("Range " + first + "-" + last + " of " + objectKey
+                                + " ended after " + (position[0] - first) + " bytes");
+                    }
+                })
+                .handle((ignored, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    // 412: the object changed since HEAD, retrying would mix two versions
+                    boolean changed = cause instanceof S3Exception && ((S3Exception) cause).statusCode() == 412;
+                    if (changed || attempt >= attempts) {
+                        return CompletableFuture.<Void>failedFuture(cause);
+                    }
+                    logger.warn("Range {}-{} of {} failed (attempt {} of {}), retrying: {}",
+                            first, last, objectKey, attempt, attempts, cause.getMessage());
+                    return downloadPart(objectKey, eTag, first, last, encryption, channel, attempt + 1);
+                })
+                .thenCompose(next -> next);
+    }
+
+    /**
+     * The part size the object was uploaded with, or 0 if it was uploaded in one part.
+     */
+    private CompletableFuture<Long> uploadPartSize(String objectKey, String eTag) {
+        if (eTag == null || !MULTIPART_ETAG.matcher(eTag).matches()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .partNumber(1)
+                .ifMatch(eTag)
+                .build();
+        return s3AsyncClient.headObject(request).thenApply(response -> response.contentLength());
+    }
+
+    /**
+     * The encryption of an object whose ETag is not derived from MD5s (SSE-KMS, DSSE-KMS or
+     * SSE-C), or null for unencrypted and SSE-S3 objects.
+     */
+    private static String opaqueETagEncryption(GetObjectResponse response) {
+        String serverSide = response.serverSideEncryptionAsString();
+        if (serverSide != null && serverSide.startsWith("aws:kms")) {
+            return serverSide;
+        }
+        return response.sseCustomerAlgorithm() != null ? "SSE-C" : null;
+    }
+
+    private static void verify(String objectKey, String eTag, long size, long uploadPartSize, String encryption, Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != size) {
+                throw new IllegalStateException("Downloaded " + objectKey + " is " + channel.size() + " bytes, expected " + size);
+            }
+            if (encryption != null) {
+                logger.warn("Cannot verify {}: ETag of an object encrypted with {} is not an MD5; checked size only",
+                        objectKey, encryption);
+                return;
+            }
+            String expected = eTag == null ? "" : eTag;
+            Matcher single = SINGLE_PART_ETAG.matcher(expected);
+            Matcher multipart = MULTIPART_ETAG.matcher(expected);
+            String actual;
+            if (single.matches()) {
+                expected = single.group(1);
+                actual = hex(md5(channel, 0, size).digest());
+            } else if (multipart.matches()) {
+                int parts = Integer.parseInt(multipart.group(2));
+                // Uploads use one part size except for a shorter last part; anything else cannot be rebuilt
+                if (uploadPartSize <= 0 || (size + uploadPartSize - 1) / uploadPartSize != parts) {
+                    logger.warn("Cannot verify {}: ETag has {} parts, part 1 is {} bytes of {}; checked size only",
+                            objectKey, parts, uploadPartSize, size);
+                    return;
+                }
+                MessageDigest partDigests = MessageDigest.getInstance("MD5");
+                for (long position = 0; position < size; position += uploadPartSize) {
+                    partDigests.update(md5(channel, position, Math.min(uploadPartSize, size - position)).digest());
+                }
+                expected = multipart.group(1) + "-" + parts;
+                actual = hex(partDigests.digest()) + "-" + parts;
+            } else {
+                logger.warn("Cannot verify {}: unrecognised ETag {}; checked size only", objectKey, eTag);
+                return;
+            }
+            if (!actual.equalsIgnoreCase(expected)) {
+                throw new IllegalStateException("Checksum mismatch for " + objectKey + ": computed " + actual + ", ETag " + expected);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    private static MessageDigest md5(FileChannel channel, long position, long length)
+            throws IOException, NoSuchAlgorithmException {
+        MessageDigest md5 = MessageDigest.getInstance("MD5");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        long end = position + length;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file at " + position);
+            }
+            position += read;
+            buffer.flip();
+            md5.update(buffer);
+        }
+        return md5;
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close download file: {}", e.getMessage());
+        }
+    }
+}
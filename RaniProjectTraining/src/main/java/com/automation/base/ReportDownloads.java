@@ -0,0 +1,64 @@
+package com.automation.services;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of downloading a batch of reports: the files that were written, in the order the
+ * keys were given (date order for date-range downloads), and the keys that failed with why.
+ */
+public class ReportDownloads {
+
+    private final List<Path> paths;
+    private final Map<String, Throwable> failures;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    ReportDownloads(List<Path> paths, Map<String, Throwable> failures, long bytes, long elapsedNanos) {
+        this.paths = Collections.unmodifiableList(paths);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return Downloaded files, in request order
+     */
+    public List<Path> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return Failed object keys, in request order, with the error for each
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return Aggregate throughput in MB/s over the whole batch
+     */
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : bytes / 1e6 / (elapsedNanos / 1e9);
+    }
+
+    public String getStats() {
+        return String.format("files=%d, failed=%d, bytes=%d, elapsed=%dms, throughput=%.1fMB/s",
+                paths.size(), failures.size(), bytes, getElapsedMillis(), getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,313 @@
+package com.automation.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Local copies of downloaded reports, keyed by S3 key and ETag, shared by every S3Service in the
+ * process. Weekly reports do not change once published, so a copy whose ETag matches the
+ * listing is served without a request, and one whose ETag is unknown is revalidated with a HEAD
+ * request that costs no transfer when the ETag still matches.
+ *
+ * <p>Files are written under a temporary name and renamed into place once complete, both in the
+ * cache and in the download directory, so a crash never leaves a truncated report behind. The
+ * cache is bounded by size and evicts least recently used reports; use order survives restarts
+ * through the files' modification times.
+ *
+ * <ul>
+ *   <li>-Ds3.cache.dir: cache directory (default target/s3-report-cache)</li>
+ *   <li>-Ds3.cache.maxMb: size limit in MB (default 1024)</li>
+ * </ul>
+ */
+public class ReportFileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportFileCache.class);
+    private static final String PART_SUFFIX = ".part";
+
+    private static ReportFileCache shared;
+
+    private final Path directory;
+    private final long maxBytes;
+    // Access-ordered: iteration starts at the least recently used report
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder bytesDownloaded = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * A cached report file.
+     */
+    public static final class Entry {
+        private final String key;
+        private final String eTag;
+        private final Path path;
+        private final long size;
+
+        private Entry(String key, String eTag, Path path, long size) {
+            this.key = key;
+            this.eTag = eTag;
+            this.path = path;
+            this.size = size;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return true if this copy has the given ETag (quoted or not)
+         */
+        public boolean matches(String otherETag) {
+            return otherETag != null && fileETag(otherETag).equals(fileETag(eTag));
+        }
+    }
+
+    ReportFileCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    /**
+     * The process-wide cache, created on first use from the -Ds3.cache.* properties.
+     */
+    public static synchronized ReportFileCache shared() {
+        if (shared == null) {
+            Path directory = Paths.get(System.getProperty("s3.cache.dir", "target/s3-report-cache"));
+            long maxBytes = Long.getLong("s3.cache.maxMb", 1024) * 1024 * 1024;
+            try {
+                shared = new ReportFileCache(directory, maxBytes);
+            } catch (IOException e) {
+                logger.error("Failed to open report cache {}: {}", directory, e.getMessage());
+                throw new RuntimeException("Failed to open report cache", e);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * The cached copy of a report, whatever its ETag, or null. Counts as a use for eviction.
+     */
+    public synchronized Entry lookup(String key) {
+        return entries.get(keyHash(key));
+    }
+
+    /**
+     * A unique path in the cache directory to download into before {@link #store}. The file is
+     * not created, so it gets default permissions rather than createTempFile's owner-only ones.
+     */
+    public Path newPartFile() {
+        return directory.resolve("download-" + UUID.randomUUID() + PART_SUFFIX);
+    }
+
+    /**
+     * Deliver a copy of a completely downloaded part file to {@code destination}, then rename it
+     * into the cache and evict down to the size limit. Delivering first means a concurrent store
+     * cannot evict the new report before it has been copied out.
+     */
+    public Path store(String key, String eTag, Path partFile, Path destination) throws IOException {
+        long size = Files.size(partFile);
+        deliver(partFile, destination);
+        Path cached = directory.resolve(keyHash(key) + "_" + fileETag(eTag) + extension(key));
+        moveIntoPlace(partFile, cached);
+        Entry entry = new Entry(key, eTag, cached, size);
+        synchronized (this) {
+            Entry previous = entries.put(keyHash(key), entry);
+            sizeBytes += size;
+            if (previous != null) {
+                sizeBytes -= previous.size;
+                if (!previous.path.equals(cached)) {
+                    Files.deleteIfExists(previous.path);
+                }
+            }
+            evict(entry);
+        }
+        misses.increment();
+        bytesDownloaded.add(size);
+        return destination;
+    }
+
+    /**
+     * Deliver a copy of a cached report to {@code destination} without downloading it. Fails if
+     * the copy was evicted in the meantime; the caller should then {@link #invalidate} the entry
+     * and download the report.
+     *
+     * @param revalidated true if S3 was asked and reported the same ETag
+     */
+    public Path serve(Entry entry, Path destination, boolean revalidated) throws IOException {
+        try {
+            Files.setLastModifiedTime(entry.path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.debug("Could not record use of cached report {}: {}", entry.key, e.getMessage());
+        }
+        Path delivered = deliver(entry.path, destination);
+        (revalidated ? this.revalidated : hits).increment();
+        bytesSaved.add(entry.size);
+        return delivered;
+    }
+
+    /**
+     * Forget a cached report that could not be served, unless it has already been replaced.
+     */
+    public synchronized void invalidate(Entry entry) {
+        // Entries have no equals(), so this only removes this exact entry, not a newer copy
+        if (!entries.values().remove(entry)) {
+            return;
+        }
+        sizeBytes -= entry.size;
+        try {
+            Files.deleteIfExists(entry.path);
+        } catch (IOException e) {
+            logger.debug("Could not delete cached report {}: {}", entry.path, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete every cached report.
+     */
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            try {
+                Files.deleteIfExists(entry.path);
+            } catch (IOException e) {
+                logger.debug("Could not delete cached report {}: {}", entry.path, e.getMessage());
+            }
+        }
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    public synchronized String getStats() {
+        return String.format("hits=%d, revalidated=%d, misses=%d, evictions=%d, downloadedBytes=%d, savedBytes=%d, entries=%d, sizeBytes=%d",
+                hits.sum(), revalidated.sum(), misses.sum(), evictions.sum(), bytesDownloaded.sum(), bytesSaved.sum(),
+                entries.size(), sizeBytes);
+    }
+
+    private Path deliver(Path source, Path destination) throws IOException {
+        Path parent = destination.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path part = parent.resolve("." + destination.getFileName() + "." + UUID.randomUUID() + PART_SUFFIX);
+        try {
+            Files.copy(source, part);
+            moveIntoPlace(part, destination);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+        return destination;
+    }
+
+    private void evict(Entry keep) {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            if (entry == keep) {
+                continue;
+            }
+            eldest.remove();
+            sizeBytes -= entry.size;
+            evictions.increment();
+            try {
+                Files.deleteIfExists(entry.path);
+            } catch (IOException e) {
+                logger.debug("Could not delete evicted report {}: {}", entry.path, e.getMessage());
+            }
+            logger.debug("Evicted cached report {} ({} bytes)", entry.key, entry.size);
+        }
+    }
+
+    /**
+     * Rebuild the index from the files left by earlier runs, least recently used first.
+     */
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(Files::isRegularFile).forEach(files::add);
+        }
+        List<Path> cached = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(PART_SUFFIX)) {
+                // Interrupted download
+                Files.deleteIfExists(file);
+            } else if (file.getFileName().toString().indexOf('_') == 64) {
+                cached.add(file);
+            }
+        }
+        Map<Path, FileTime> used = new HashMap<>();
+        for (Path file : cached) {
+            used.put(file, Files.getLastModifiedTime(file));
+        }
+        cached.sort(Comparator.comparing(used::get));
+        for (Path file : cached) {
+            String name = file.getFileName().toString();
+            int dot = name.indexOf('.', 65);
+            String eTag = name.substring(65, dot < 0 ? name.length() : dot);
+            long size = Files.size(file);
+            // The key itself is only known again once it is looked up; the hash identifies it
+            entries.put(name.substring(0, 64), new Entry(name.substring(0, 64), "\"" + eTag + "\"", file, size));
+            sizeBytes += size;
+        }
+        if (!entries.isEmpty()) {
+            logger.info("Report cache {}: {} reports, {} bytes", directory, entries.size(), sizeBytes);
+        }
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String keyHash(String key) {
+        try {
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * ETag without quotes and with only file-name-safe characters ("abc-3" for multipart).
+     */
+    private static String fileETag(String eTag) {
+        return eTag == null ? "none" : eTag.replaceAll("[^A-Za-z0-9-]", "");
+    }
+
+    private static String extension(String key) {
+        String fileName = key.substring(key.lastIndexOf('/') + 1);
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot).replaceAll("[^A-Za-z0-9.]", "");
+    }
+}
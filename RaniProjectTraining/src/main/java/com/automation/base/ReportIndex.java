@@ -0,0 +1,154 @@
+package com.automation.services;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Weekly reports by report date, parsed once from a listing. Latest, exact-date and range
+ * lookups are tree lookups with no per-query key parsing. Keys whose file name does not start
+ * with a yyyy-MM-dd date followed by '.' are left out. A date normally has one report; when it
+ * has several (e.g. .csv and .xlsx) they are kept in key order.
+ *
+ * <p>Instances are immutable; a refreshed listing builds a new index with {@link #plus}.
+ */
+public final class ReportIndex {
+
+    private static final ReportIndex EMPTY = new ReportIndex(new TreeMap<>(), 0, 0);
+
+    private final NavigableMap<LocalDate, List<ReportObject>> byDate;
+    private final int size;
+    private final int skipped;
+
+    private ReportIndex(NavigableMap<LocalDate, List<ReportObject>> byDate, int size, int skipped) {
+        this.byDate = byDate;
+        this.size = size;
+        this.skipped = skipped;
+    }
+
+    public static ReportIndex of(Collection<ReportObject> reports) {
+        return EMPTY.plus(reports);
+    }
+
+    /**
+     * A new index with {@code added} reports; only the added keys are parsed.
+     */
+    public ReportIndex plus(Collection<ReportObject> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        TreeMap<LocalDate, List<ReportObject>> copy = new TreeMap<>(byDate);
+        int newSize = size;
+        int newSkipped = skipped;
+        for (ReportObject report : added) {
+            LocalDate date = reportDate(report.getKey());
+            if (date == null) {
+                newSkipped++;
+                continue;
+            }
+            copy.merge(date, List.of(report), ReportIndex::concat);
+            newSize++;
+        }
+        return new ReportIndex(copy, newSize, newSkipped);
+    }
+
+    /**
+     * @return Report with the latest date, or null if there are none
+     */
+    public ReportObject latest() {
+        Map.Entry<LocalDate, List<ReportObject>> last = byDate.lastEntry();
+        return last == null ? null : last.getValue().get(last.getValue().size() - 1);
+    }
+
+    /**
+     * @return Date of the latest report, or null if there are none
+     */
+    public LocalDate latestDate() {
+        return byDate.isEmpty() ? null : byDate.lastKey();
+    }
+
+    public boolean contains(LocalDate date) {
+        return byDate.containsKey(date);
+    }
+
+    /**
+     * @return Reports dated {@code date}, empty if none
+     */
+    public List<ReportObject> on(LocalDate date) {
+        return byDate.getOrDefault(date, Collections.emptyList());
+    }
+
+    /**
+     * @return Reports dated from {@code startDate} to {@code endDate} inclusive, in date order
+     */
+    public List<ReportObject> between(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return Collections.emptyList();
+        }
+        NavigableMap<LocalDate, List<ReportObject>> range = byDate.subMap(startDate, true, endDate, true);
+        List<ReportObject> reports = new ArrayList<>(range.size());
+        range.values().forEach(reports::addAll);
+        return reports;
+    }
+
+    /**
+     * @return Number of dated reports
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of listed keys without a report date
+     */
+    public int skipped() {
+        return skipped;
+    }
+
+    /**
+     * Date at the start of a report file name, e.g. 2024-01-01 for ".../2024-01-01.csv". Reads
+     * the digits in place, so keys that are not dated cost no substring or exception.
+     *
+     * @return Report date, or null if the file name is not "yyyy-MM-dd." followed by anything
+     */
+    static LocalDate reportDate(String key) {
+        int start = key.lastIndexOf('/') + 1;
+        if (key.length() < start + 11 || key.charAt(start + 4) != '-' || key.charAt(start + 7) != '-'
+                || key.charAt(start + 10) != '.') {
+            return null;
+        }
+        int year = digits(key, start, 4);
+        int month = digits(key, start + 5, 2);
+        int day = digits(key, start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1
+                || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(String key, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static List<ReportObject> concat(List<ReportObject> existing, List<ReportObject> added) {
+        List<ReportObject> merged = new ArrayList<>(existing);
+        merged.addAll(added);
+        return Collections.unmodifiableList(merged);
+    }
+}
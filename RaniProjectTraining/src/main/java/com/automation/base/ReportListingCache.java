@@ -0,0 +1,169 @@
+package com.automation.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Process-wide cache of an S3 prefix listing, shared by every S3Service on the same endpoint,
+ * bucket and prefix. Lookups within the TTL cost no S3 requests. When the TTL has passed, only
+ * keys after the newest known key are listed (ListObjectsV2 startAfter), which picks up newly
+ * published reports in one request; a full listing is done on first use, after
+ * {@link #invalidate()} and every full-refresh interval, to pick up deleted or back-filled
+ * reports.
+ *
+ * <ul>
+ *   <li>-Ds3.index.ttl: seconds a listing is served without asking S3 (default 300)</li>
+ *   <li>-Ds3.index.fullRefresh: seconds between full listings (default 3600)</li>
+ * </ul>
+ */
+public class ReportListingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportListingCache.class);
+    private static final long ttlNanos = TimeUnit.SECONDS.toNanos(Long.getLong("s3.index.ttl", 300));
+    private static final long fullRefreshNanos = TimeUnit.SECONDS.toNanos(Long.getLong("s3.index.fullRefresh", 3600));
+
+    private static final Map<String, ReportListingCache> caches = new ConcurrentHashMap<>();
+
+    private final String location;
+    private volatile Listing listing;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fullListings = new LongAdder();
+    private final LongAdder incrementalListings = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * A listing as of {@code checkedAt}, sorted by key, and its date index.
+     */
+    private static class Listing {
+        private final List<ReportObject> objects;
+        private final ReportIndex index;
+        private final long checkedAt;
+        private final long fullAt;
+
+        Listing(List<ReportObject> objects, ReportIndex index, long checkedAt, long fullAt) {
+            this.objects = objects;
+            this.index = index;
+            this.checkedAt = checkedAt;
+            this.fullAt = fullAt;
+        }
+
+        String newestKey() {
+            return objects.isEmpty() ? null : objects.get(objects.size() - 1).getKey();
+        }
+    }
+
+    private ReportListingCache(String location) {
+        this.location = location;
+    }
+
+    /**
+     * The shared cache for a prefix, e.g. "https://s3.us-east-2.amazonaws.com/bucket/prefix/".
+     */
+    public static ReportListingCache forLocation(String location) {
+        return caches.computeIfAbsent(location, ReportListingCache::new);
+    }
+
+    /**
+     * Drop every cached listing; the next lookup of each prefix lists it in full.
+     */
+    public static void invalidateAll() {
+        caches.values().forEach(ReportListingCache::invalidate);
+    }
+
+    /**
+     * The cached listing, refreshed through {@code lister} if the TTL has passed. The lister
+     * takes a startAfter key (null for a full listing) and returns the listing pages.
+     *
+     * @return Unmodifiable list of report objects in key order
+     */
+    public List<ReportObject> get(Function<String, Stream<ListObjectsV2Response>> lister) {
+        return listing(lister).objects;
+    }
+
+    /**
+     * Like {@link #get}, as a date index that is built once per refresh.
+     */
+    public ReportIndex index(Function<String, Stream<ListObjectsV2Response>> lister) {
+        return listing(lister).index;
+    }
+
+    private Listing listing(Function<String, Stream<ListObjectsV2Response>> lister) {
+        Listing current = listing;
+        if (current != null && System.nanoTime() - current.checkedAt < ttlNanos) {
+            hits.increment();
+            return current;
+        }
+        // One thread refreshes; the others wait and then use its result
+        synchronized (this) {
+            current = listing;
+            long now = System.nanoTime();
+            if (current != null && now - current.checkedAt < ttlNanos) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            listing = current == null || now - current.fullAt >= fullRefreshNanos
+                    ? fullListing(lister, now)
+                    : incrementalListing(current, lister, now);
+            return listing;
+        }
+    }
+
+    /**
+     * Forget the listing so the next lookup lists the prefix in full.
+     */
+    public void invalidate() {
+        listing = null;
+        logger.debug("Report index for {} invalidated", location);
+    }
+
+    public String getStats() {
+        Listing current = listing;
+        return String.format("hits=%d, misses=%d, fullListings=%d, incrementalListings=%d, listRequests=%d, keys=%d",
+                hits.sum(), misses.sum(), fullListings.sum(), incrementalListings.sum(), requests.sum(),
+                current == null ? 0 : current.objects.size());
+    }
+
+    private Listing fullListing(Function<String, Stream<ListObjectsV2Response>> lister, long now) {
+        List<ReportObject> objects = list(lister, null, new ArrayList<>());
+        ReportIndex index = ReportIndex.of(objects);
+        fullListings.increment();
+        logger.debug("Report index for {} loaded: {} keys, {} without a report date",
+                location, objects.size(), index.skipped());
+        return new Listing(Collections.unmodifiableList(objects), index, now, now);
+    }
+
+    private Listing incrementalListing(Listing current, Function<String, Stream<ListObjectsV2Response>> lister, long now) {
+        String newestKey = current.newestKey();
+        if (newestKey == null) {
+            return fullListing(lister, now);
+        }
+        List<ReportObject> objects = list(lister, newestKey, new ArrayList<>(current.objects));
+        List<ReportObject> added = objects.subList(current.objects.size(), objects.size());
+        incrementalListings.increment();
+        logger.debug("Report index for {} refreshed: {} new keys after {}", location, added.size(), newestKey);
+        return new Listing(Collections.unmodifiableList(objects), current.index.plus(added), now, current.fullAt);
+    }
+
+    private List<ReportObject> list(Function<String, Stream<ListObjectsV2Response>> lister, String startAfter,
+                                    List<ReportObject> objects) {
+        lister.apply(startAfter).forEach(page -> {
+            requests.increment();
+            page.contents().forEach(object -> objects.add(ReportObject.from(object)));
+        });
+        return objects;
+    }
+}
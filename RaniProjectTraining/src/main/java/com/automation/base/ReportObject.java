@@ -0,0 +1,58 @@
+package com.automation.services;
+
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.Instant;
+
+/**
+ * A weekly report object as listed in S3: key, size, ETag and last-modified time.
+ */
+public class ReportObject {
+
+    private final String key;
+    private final long size;
+    private final String eTag;
+    private final Instant lastModified;
+
+    public ReportObject(String key, long size, String eTag, Instant lastModified) {
+        this.key = key;
+        this.size = size;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    static ReportObject from(S3Object object) {
+        return new ReportObject(object.key(), object.size() == null ? 0 : object.size(), object.eTag(), object.lastModified());
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * ETag as returned by S3, including the surrounding quotes.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * File name part of the key, e.g. "2024-01-01.csv".
+     */
+    public String getFileName() {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public String toString() {
+        return key + " (" + size + " bytes, " + eTag + ")";
+    }
+}
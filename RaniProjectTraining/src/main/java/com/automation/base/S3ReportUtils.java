@@ -6,13 +6,11 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class S3ReportUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(S3ReportUtils.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     /**
      * Download the most recent weekly report
@@ -167,19 +165,7 @@ public class S3ReportUtils {
         public static LocalDate getLatestReportDate() {
         WeeklyReportManager manager = new WeeklyReportManager();
         try {
-            String latestReportKey = manager.getS3Service().getLatestWeeklyReport();
-            if (latestReportKey == null) {
-                return null;
-            }
-            
-            // Extract date from the report key
-            String fileName = latestReportKey.substring(latestReportKey.lastIndexOf('/') + 1);
-            if (fileName.contains(".")) {
-                String datePart = fileName.split("\\.")[0];
-                return LocalDate.parse(datePart, DATE_FORMATTER);
-            }
-            
-            return null;
+            return manager.getS3Service().getWeeklyReportIndex().latestDate();
         } catch (Exception e) {
             logger.error("Failed to get latest report date: {}", e.getMessage());
             return null;
@@ -227,9 +213,9 @@ public class S3ReportUtils {
         public static String getReportsSummary() {
         WeeklyReportManager manager = new WeeklyReportManager();
         try {
-            List<String> allReports = manager.getS3Service().getAllWeeklyReports();
+            int reportCount = manager.getS3Service().getWeeklyReportListing().size();
             
-            if (allReports.isEmpty()) {
+            if (reportCount == 0) {
                 return "No weekly reports found in S3 bucket";
             }
             
@@ -238,7 +224,7 @@ public class S3ReportUtils {
             
             StringBuilder summary = new StringBuilder();
             summary.append("Reports Summary:\n");
-            summary.append("- Total reports available: ").append(allReports.size()).append("\n");
+            summary.append("- Total reports available: ").append(reportCount).append("\n");
             summary.append("- Latest report date: ").append(latestDate != null ? latestDate : "Unknown").append("\n");
             summary.append("- Days since latest report: ").append(daysSinceLatest).append("\n");
             summary.append("- Reports up to date: ").append(areReportsUpToDate(7)).append("\n");
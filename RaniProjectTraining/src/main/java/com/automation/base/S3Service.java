@@ -4,29 +4,48 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.FileTransformerConfiguration;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
-import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class S3Service {
 
     private static final Logger logger = LoggerFactory.getLogger(S3Service.class);
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private final String bucketName = "ip-report-prod";
     private final String region = "us-east-2";
     private final String prefix = "adv-report/commission/weekly/";
+    private final ReportListingCache reportIndex;
+    // Parallel GETs for batch downloads
+    private final int downloadConcurrency = Integer.getInteger("s3.download.concurrency", 8);
+    // Opened on the first download, so listing and lookups never touch the local disk
+    private volatile ReportFileCache fileCache;
+    // Objects at least this large are fetched as parallel byte ranges
+    private final long rangeThreshold = Long.getLong("s3.download.rangeThresholdMb", 64) * 1024 * 1024;
+    private final RangedDownload rangedDownload;
 
     public S3Service(String accessKeyId, String secretAccessKey) {
         AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
@@ -34,9 +53,74 @@ public class S3Service {
                 .region(Region.US_EAST_2)
                 .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
                 .build();
+        this.s3AsyncClient = S3AsyncClient.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                .build();
+        this.reportIndex = ReportListingCache.forLocation(location());
+        this.rangedDownload = rangedDownload(s3AsyncClient);
         logger.info("S3 client initialized for bucket: {}", bucketName);
     }
 
+    /**
+     * Use already configured clients, e.g. ones pointed at a local S3 endpoint
+     * 
+     * @param s3Client      S3 client to use; closed by {@link #close()}
+     * @param s3AsyncClient S3 async client for batch downloads; closed by {@link #close()}
+     */
+    public S3Service(S3Client s3Client, S3AsyncClient s3AsyncClient) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.reportIndex = ReportListingCache.forLocation(location());
+        this.rangedDownload = rangedDownload(s3AsyncClient);
+        logger.info("S3 client initialized for bucket: {}", bucketName);
+    }
+
+    /**
+     * Stream the weekly reports under the report prefix, in key order. Pages of up to 1000
+     * objects are fetched from S3 only as the stream is consumed, so memory stays bounded by one
+     * page however many reports there are, and short-circuiting operations (findFirst,
+     * anyMatch, limit) stop listing early. S3 errors are thrown while the stream is consumed.
+     *
+     * @return Lazy stream of report objects
+     */
+    public Stream<ReportObject> streamWeeklyReports() {
+        return listPages(null)
+                .flatMap(page -> page.contents().stream())
+                .map(ReportObject::from);
+    }
+
+    /**
+     * Get the cached listing of weekly reports, shared by every S3Service in this process.
+     * Served without S3 requests until -Ds3.index.ttl passes, then topped up with the reports
+     * published since (see {@link ReportListingCache}).
+     * 
+     * @return Unmodifiable list of report objects in key order
+     */
+    public List<ReportObject> getWeeklyReportListing() {
+        return reportIndex.get(this::listPages);
+    }
+
+    /**
+     * Get the cached listing indexed by report date, for latest, exact-date and range lookups
+     * 
+     * @return Date index of the weekly reports
+     */
+    public ReportIndex getWeeklyReportIndex() {
+        return reportIndex.index(this::listPages);
+    }
+
+    /**
+     * Drop the cached listing, e.g. after uploading or deleting reports
+     */
+    public void invalidateReportIndex() {
+        reportIndex.invalidate();
+    }
+
+    public String getReportIndexStats() {
+        return reportIndex.getStats();
+    }
+
     /**
      * Get all weekly reports from the S3 bucket
      * 
@@ -44,14 +128,8 @@ public class S3Service {
      */
     public List<String> getAllWeeklyReports() {
         try {
-            ListObjectsV2Request request = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(prefix)
-                    .build();
-
-            ListObjectsV2Response response = s3Client.listObjectsV2(request);
-            List<String> reportKeys = response.contents().stream()
-                    .map(S3Object::key)
+            List<String> reportKeys = getWeeklyReportListing().stream()
+                    .map(ReportObject::getKey)
                     .collect(Collectors.toList());
 
             logger.info("Found {} weekly reports in S3 bucket", reportKeys.size());
@@ -71,25 +149,8 @@ public class S3Service {
      */
     public List<String> getWeeklyReportsByDateRange(LocalDate startDate, LocalDate endDate) {
         try {
-            List<String> allReports = getAllWeeklyReports();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-            List<String> filteredReports = allReports.stream()
-                    .filter(key -> {
-                        // Extract date from the key and check if it's in range
-                        String fileName = key.substring(key.lastIndexOf('/') + 1);
-                        if (fileName.contains(".")) {
-                            String datePart = fileName.split("\\.")[0];
-                            try {
-                                LocalDate reportDate = LocalDate.parse(datePart, formatter);
-                                return !reportDate.isBefore(startDate) && !reportDate.isAfter(endDate);
-                            } catch (Exception e) {
-                                logger.warn("Could not parse date from filename: {}", fileName);
-                                return false;
-                            }
-                        }
-                        return false;
-                    })
+            List<String> filteredReports = getWeeklyReportIndex().between(startDate, endDate).stream()
+                    .map(ReportObject::getKey)
                     .collect(Collectors.toList());
 
             logger.info("Found {} reports in date range {} to {}",
@@ -108,17 +169,12 @@ public class S3Service {
      */
     public String getLatestWeeklyReport() {
         try {
-            List<String> allReports = getAllWeeklyReports();
-            if (allReports.isEmpty()) {
+            ReportObject latest = getWeeklyReportIndex().latest();
+            if (latest == null) {
                 logger.warn("No weekly reports found in S3 bucket");
                 return null;
             }
-
-            // Sort by key (assuming keys contain dates) and get the latest
-            String latestReport = allReports.stream()
-                    .sorted()
-                    .reduce((first, second) -> second)
-                    .orElse(null);
+            String latestReport = latest.getKey();
 
             logger.info("Latest weekly report: {}", latestReport);
             return latestReport;
@@ -128,6 +184,39 @@ public class S3Service {
         }
     }
 
+    private ReportFileCache fileCache() {
+        ReportFileCache cache = fileCache;
+        if (cache == null) {
+            cache = ReportFileCache.shared();
+            fileCache = cache;
+        }
+        return cache;
+    }
+
+    private RangedDownload rangedDownload(S3AsyncClient s3AsyncClient) {
+        return new RangedDownload(s3AsyncClient, bucketName,
+                Long.getLong("s3.download.partMb", 8) * 1024 * 1024,
+                Integer.getInteger("s3.download.rangeConcurrency", 8),
+                Integer.getInteger("s3.download.partAttempts", 3));
+    }
+
+    private Stream<ListObjectsV2Response> listPages(String startAfter) {
+        ListObjectsV2Request.Builder request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix);
+        if (startAfter != null) {
+            request.startAfter(startAfter);
+        }
+        return s3Client.listObjectsV2Paginator(request.build()).stream();
+    }
+
+    private String location() {
+        String endpoint = s3Client.serviceClientConfiguration().endpointOverride()
+                .map(Object::toString)
+                .orElse(region);
+        return endpoint + "/" + bucketName + "/" + prefix;
+    }
+
     /**
      * Download a specific report from S3
      * 
@@ -137,21 +226,14 @@ public class S3Service {
      */
     public Path downloadReport(String objectKey, String localPath) {
         try {
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(objectKey)
-                    .build();
-
             Path downloadPath = Paths.get(localPath);
-            Files.createDirectories(downloadPath.getParent());
-
-            s3Client.getObject(getObjectRequest, downloadPath);
+            long transferred = fetch(new ReportObject(objectKey, -1, null, null), downloadPath).join();
 
-            logger.info("Downloaded report {} to {}", objectKey, downloadPath);
+            logger.info("Downloaded report {} to {} ({} bytes transferred)", objectKey, downloadPath, transferred);
             return downloadPath;
-        } catch (S3Exception | IOException e) {
-            logger.error("Failed to download report {}: {}", objectKey, e.getMessage());
-            throw new RuntimeException("Failed to download report", e);
+        } catch (CompletionException e) {
+            logger.error("Failed to download report {}: {}", objectKey, e.getCause().getMessage());
+            throw new RuntimeException("Failed to download report", e.getCause());
         }
     }
 
@@ -178,18 +260,176 @@ public class S3Service {
      * @return List of paths to downloaded files
      */
     public List<Path> downloadWeeklyReportsByDateRange(LocalDate startDate, LocalDate endDate, String localDirectory) {
-        List<String> reportKeys = getWeeklyReportsByDateRange(startDate, endDate);
-        List<Path> downloadedPaths = new ArrayList<>();
+        ReportDownloads downloads = downloadWeeklyReports(startDate, endDate, localDirectory);
+        if (downloads.hasFailures()) {
+            RuntimeException error = new RuntimeException("Failed to download " + downloads.getFailures().size()
+                    + " reports: " + downloads.getFailures().keySet());
+            downloads.getFailures().values().forEach(error::addSuppressed);
+            throw error;
+        }
+        return downloads.getPaths();
+    }
+
+    /**
+     * Download all weekly reports from a date range in parallel, collecting failures instead of
+     * stopping at the first one
+     * 
+     * @param startDate      Start date for the range
+     * @param endDate        End date for the range
+     * @param localDirectory Local directory where to save the files
+     * @return Downloaded files in date order, and the reports that failed
+     */
+    public ReportDownloads downloadWeeklyReports(LocalDate startDate, LocalDate endDate, String localDirectory) {
+        List<ReportObject> reports = getWeeklyReportIndex().between(startDate, endDate);
+        logger.info("Found {} reports in date range {} to {}", reports.size(), startDate, endDate);
+        return download(reports, localDirectory);
+    }
+
+    /**
+     * Download reports with up to -Ds3.download.concurrency (default 8) GETs in flight. Each
+     * finished file is logged with its progress through the batch, and the batch with its
+     * aggregate throughput. Cached copies are revalidated with a HEAD request.
+     * 
+     * @param objectKeys     S3 object keys of the reports to download
+     * @param localDirectory Local directory where to save the files
+     * @return Downloaded files in the order of {@code objectKeys}, and the keys that failed
+     */
+    public ReportDownloads downloadReports(List<String> objectKeys, String localDirectory) {
+        return download(objectKeys.stream()
+                .map(key -> new ReportObject(key, -1, null, null))
+                .collect(Collectors.toList()), localDirectory);
+    }
+
+    // Reports with a known ETag are served from the local cache without a request when it matches
+    private ReportDownloads download(List<ReportObject> reports, String localDirectory) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(Paths.get(localDirectory));
+        } catch (IOException e) {
+            logger.error("Failed to create download directory {}: {}", localDirectory, e.getMessage());
+            throw new RuntimeException("Failed to create download directory", e);
+        }
+
+        Semaphore permits = new Semaphore(downloadConcurrency);
+        AtomicInteger completed = new AtomicInteger();
+        LongAdder bytes = new LongAdder();
+        List<CompletableFuture<Path>> downloads = new ArrayList<>(reports.size());
+        for (ReportObject report : reports) {
+            permits.acquireUninterruptibly();
+            String objectKey = report.getKey();
+            Path downloadPath = Paths.get(localDirectory, report.getFileName());
+            long fileStart = System.nanoTime();
+            CompletableFuture<Path> download = fetch(report, downloadPath)
+                    .thenApply(transferred -> {
+                        bytes.add(transferred);
+                        logger.info("Downloaded report {} ({}/{}, {} bytes transferred in {} ms)", objectKey,
+                                completed.incrementAndGet(), reports.size(), transferred,
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fileStart));
+                        return downloadPath;
+                    });
+            download.whenComplete((path, error) -> {
+                permits.release();
+                if (error != null) {
+                    logger.error("Failed to download report {}: {}", objectKey, error.getMessage());
+                }
+            });
+            downloads.add(download);
+        }
+
+        List<Path> downloadedPaths = new ArrayList<>(reports.size());
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        for (int i = 0; i < downloads.size(); i++) {
+            try {
+                downloadedPaths.add(downloads.get(i).join());
+            } catch (CompletionException e) {
+                failures.put(reports.get(i).getKey(), e.getCause());
+            }
+        }
+        ReportDownloads result = new ReportDownloads(downloadedPaths, failures, bytes.sum(), System.nanoTime() - start);
+        logger.info("Downloaded {} reports to directory {}: {}", downloadedPaths.size(), localDirectory, result.getStats());
+        return result;
+    }
+
+    /**
+     * Deliver one report to {@code downloadPath} through the local report cache. A cached copy
+     * is used when its ETag matches the listing or, if the report was not listed, a HEAD
+     * request. Otherwise the report is downloaded into the cache: as parallel byte ranges when
+     * it is at least -Ds3.download.rangeThresholdMb, else with a single GET.
+     * 
+     * @param report Report to fetch; size -1 and ETag null when not known from a listing
+     * @return Bytes transferred from S3, 0 when the cached copy was used
+     */
+    private CompletableFuture<Long> fetch(ReportObject report, Path downloadPath) {
+        String objectKey = report.getKey();
+        try {
+            ReportFileCache.Entry cached = fileCache().lookup(objectKey);
+            if (cached != null && cached.matches(report.getETag()) && serveCached(objectKey, cached, downloadPath, false)) {
+                return CompletableFuture.completedFuture(0L);
+            }
+            if (report.getSize() >= 0 && report.getETag() != null) {
+                return transfer(report, downloadPath);
+            }
+            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build();
+            return s3AsyncClient.headObject(headObjectRequest).thenCompose(head -> {
+                if (cached != null && cached.matches(head.eTag()) && serveCached(objectKey, cached, downloadPath, true)) {
+                    return CompletableFuture.completedFuture(0L);
+                }
+                return transfer(new ReportObject(objectKey, head.contentLength(), head.eTag(), head.lastModified()), downloadPath);
+            });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-        for (String reportKey : reportKeys) {
-            String fileName = reportKey.substring(reportKey.lastIndexOf('/') + 1);
-            String localPath = localDirectory + File.separator + fileName;
-            Path downloadedPath = downloadReport(reportKey, localPath);
-            downloadedPaths.add(downloadedPath);
+    /**
+     * Serve a cached copy, or drop it if it cannot be read, e.g. because a download elsewhere in
+     * the batch evicted it since the lookup.
+     *
+     * @return false if the report has to be downloaded after all
+     */
+    private boolean serveCached(String objectKey, ReportFileCache.Entry cached, Path downloadPath, boolean revalidated) {
+        try {
+            fileCache().serve(cached, downloadPath, revalidated);
+            return true;
+        } catch (IOException e) {
+            logger.debug("Cached copy of {} is gone, downloading it: {}", objectKey, e.getMessage());
+            fileCache().invalidate(cached);
+            return false;
         }
+    }
 
-        logger.info("Downloaded {} reports to directory: {}", downloadedPaths.size(), localDirectory);
-        return downloadedPaths;
+    private CompletableFuture<Long> transfer(ReportObject report, Path downloadPath) {
+        String objectKey = report.getKey();
+        ReportFileCache cache = fileCache();
+        Path partFile = cache.newPartFile();
+        CompletableFuture<String> download;
+        if (report.getSize() >= rangeThreshold) {
+            download = rangedDownload.download(objectKey, report.getETag(), report.getSize(), partFile)
+                    .thenApply(bytes -> report.getETag());
+        } else {
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build();
+            download = s3AsyncClient.getObject(getObjectRequest, AsyncResponseTransformer.toFile(
+                            partFile, FileTransformerConfiguration.defaultCreateOrReplaceExisting()))
+                    .thenApply(GetObjectResponse::eTag);
+        }
+        return download.handle((eTag, error) -> {
+            try {
+                if (error == null) {
+                    cache.store(objectKey, eTag, partFile, downloadPath);
+                    return Files.size(downloadPath);
+                }
+                Files.deleteIfExists(partFile);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
     }
 
     /**
@@ -241,9 +481,13 @@ public class S3Service {
      * Close the S3 client
      */
     public void close() {
+        if (s3AsyncClient != null) {
+            s3AsyncClient.close();
+        }
         if (s3Client != null) {
             s3Client.close();
-            logger.info("S3 client closed");
+            logger.info("S3 client closed. Report index: {}. Report cache: {}", reportIndex.getStats(),
+                    fileCache == null ? "not used" : fileCache.getStats());
         }
     }
 }
\ No newline at end of file
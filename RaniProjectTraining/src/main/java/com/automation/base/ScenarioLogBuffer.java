@@ -0,0 +1,195 @@
+package com.automation.base;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logback appender that holds each scenario's log events in an in-memory ring buffer instead of
+ * writing them out as they happen. Events are keyed by the {@value #MDC_KEY} MDC value that the
+ * hooks set for the scenario thread; events without it (suite setup, browser pool threads) go
+ * straight to the attached appenders.
+ *
+ * <p>When the scenario ends, {@link #finish} either discards the buffer and logs a one-line
+ * summary (passed) or replays the whole buffered trace (failed). Events at WARN and above are
+ * written immediately as well, and are not repeated on replay. Messages are only formatted when
+ * they are written, so the buffered trace of a passing scenario is never rendered.
+ *
+ * <pre>
+ * &lt;appender name="SCENARIO" class="com.automation.base.ScenarioLogBuffer"&gt;
+ *     &lt;capacity&gt;2000&lt;/capacity&gt;
+ *     &lt;appender-ref ref="ASYNC_STDOUT"/&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ */
+public class ScenarioLogBuffer extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    public static final String MDC_KEY = "scenario";
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioLogBuffer.class);
+    private static final Map<String, Trace> traces = new ConcurrentHashMap<>();
+    private static volatile ScenarioLogBuffer active;
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private int capacity = 2000;
+    private Level immediateLevel = Level.WARN;
+
+    /**
+     * Maximum events kept per scenario; the oldest are dropped first.
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Events at or above this level are written as they happen, not only on failure.
+     */
+    public void setImmediateLevel(String level) {
+        this.immediateLevel = Level.toLevel(level, Level.WARN);
+    }
+
+    @Override
+    public void start() {
+        if (capacity < 1) {
+            addError("capacity must be positive for appender " + name);
+            return;
+        }
+        super.start();
+        active = this;
+    }
+
+    @Override
+    public void stop() {
+        if (active == this) {
+            active = null;
+        }
+        super.stop();
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String scenario = event.getMDCPropertyMap().get(MDC_KEY);
+        boolean immediate = event.getLevel().isGreaterOrEqual(immediateLevel);
+        if (scenario == null || immediate) {
+            appenders.appendLoopOnAppenders(event);
+        }
+        if (scenario != null) {
+            // Pin the thread name now; the message itself stays unformatted until replay
+            event.getThreadName();
+            traces.computeIfAbsent(scenario, key -> new Trace(capacity)).add(event, immediate);
+        }
+    }
+
+    /**
+     * Close a scenario's buffer: log a summary line if it passed, or replay its buffered events
+     * if it failed. Call on the scenario thread while the MDC key is still set.
+     */
+    public static void finish(String scenario, String name, boolean failed, long elapsedMillis) {
+        if (scenario == null) {
+            return;
+        }
+        Trace trace = traces.remove(scenario);
+        ScenarioLogBuffer buffer = active;
+        if (trace == null || buffer == null) {
+            return;
+        }
+        MDC.remove(MDC_KEY);
+        try {
+            if (!failed) {
+                logger.info("Scenario '{}' passed in {} ms ({} log events suppressed)", name, elapsedMillis, trace.total);
+                return;
+            }
+            logger.error("Scenario '{}' failed after {} ms; replaying {} buffered log events{}", name, elapsedMillis,
+                    trace.unwritten(), trace.dropped > 0 ? " (" + trace.dropped + " older events dropped)" : "");
+            trace.replay(buffer);
+        } finally {
+            MDC.put(MDC_KEY, scenario);
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+
+    /**
+     * One scenario's events, with a flag per event for those already written immediately.
+     */
+    private static class Trace {
+        private final int capacity;
+        private final ArrayDeque<ILoggingEvent> events = new ArrayDeque<>();
+        private final ArrayDeque<Boolean> written = new ArrayDeque<>();
+        private int total;
+        private int dropped;
+
+        Trace(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void add(ILoggingEvent event, boolean alreadyWritten) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+                written.removeFirst();
+                dropped++;
+            }
+            events.addLast(event);
+            written.addLast(alreadyWritten);
+            total++;
+        }
+
+        synchronized int unwritten() {
+            return (int) written.stream().filter(alreadyWritten -> !alreadyWritten).count();
+        }
+
+        synchronized void replay(ScenarioLogBuffer buffer) {
+            Iterator<Boolean> alreadyWritten = written.iterator();
+            for (ILoggingEvent event : events) {
+                if (!alreadyWritten.next()) {
+                    buffer.appenders.appendLoopOnAppenders(event);
+                }
+            }
+        }
+    }
+}
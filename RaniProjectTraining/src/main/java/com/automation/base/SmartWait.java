@@ -0,0 +1,250 @@
+package com.automation.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event-driven replacement for WebDriverWait. A wait first checks the condition with a single
+ * findElements call; if it is not met yet, an in-page MutationObserver (via executeAsyncScript)
+ * resolves the moment the DOM satisfies it instead of re-polling every 500ms. Locators the
+ * script cannot evaluate fall back to tight adaptive polling (10ms doubling up to 200ms).
+ *
+ * <p>The script's visibility test is only a trigger: the element it returns is checked again
+ * with WebDriver's isDisplayed/isEnabled, and polling takes over if that fails. Changes that
+ * mutate nothing (CSS transitions, stylesheet loads) are caught by one last check at the timeout.
+ */
+public class SmartWait {
+
+    public enum Condition { PRESENT, VISIBLE, CLICKABLE }
+
+    private static final Logger logger = LoggerFactory.getLogger(SmartWait.class);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    private static final long MIN_POLL_MILLIS = 10;
+    private static final long MAX_POLL_MILLIS = 200;
+    private static final Duration DEFAULT_SCRIPT_TIMEOUT = Duration.ofSeconds(30);
+
+    // arguments[0]=strategy, [1]=selector, [2]=condition, [3]=timeout ms, [4]=callback
+    private static final String OBSERVER_SCRIPT =
+            "var strategy = arguments[0], selector = arguments[1], condition = arguments[2];"
+            + "var timeoutMs = arguments[3], done = arguments[arguments.length - 1];"
+            + "function find() {"
+            + "  if (strategy === 'id') return document.getElementById(selector);"
+            + "  if (strategy === 'css') return document.querySelector(selector);"
+            + "  return document.evaluate(selector, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "}"
+            + "function ready(el) {"
+            + "  if (!el) return false;"
+            + "  if (condition === 'PRESENT') return true;"
+            + "  var style = window.getComputedStyle(el);"
+            + "  var visible = el.getClientRects().length > 0 && style.visibility !== 'hidden' && style.display !== 'none';"
+            + "  if (condition === 'VISIBLE') return visible;"
+            + "  return visible && !el.disabled;"
+            + "}"
+            + "var el = find();"
+            + "if (ready(el)) { done(el); return; }"
+            + "var finished = false;"
+            + "var observer = new MutationObserver(function () {"
+            + "  if (finished) return;"
+            + "  var candidate = find();"
+            + "  if (ready(candidate)) { finished = true; observer.disconnect(); done(candidate); }"
+            + "});"
+            + "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "setTimeout(function () { if (!finished) { finished = true; observer.disconnect(); done(null); } }, timeoutMs);";
+
+    private static final Map<Condition, LongAdder> waitCounts = new ConcurrentHashMap<>();
+    private static final Map<Condition, LongAdder> waitMillis = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private long lastWaitMillis;
+    private boolean scriptTimeoutRaised;
+
+    public SmartWait(WebDriver driver) {
+        this(driver, DEFAULT_TIMEOUT);
+    }
+
+    public SmartWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    public WebElement present(By locator) {
+        return until(locator, Condition.PRESENT);
+    }
+
+    public WebElement visible(By locator) {
+        return until(locator, Condition.VISIBLE);
+    }
+
+    public WebElement clickable(By locator) {
+        return until(locator, Condition.CLICKABLE);
+    }
+
+    /**
+     * Wait until the element located by {@code locator} meets {@code condition}.
+     *
+     * @throws TimeoutException if the condition is not met within the timeout
+     */
+    public WebElement until(By locator, Condition condition) {
+        long start = System.nanoTime();
+        try {
+            WebElement element = checkOnce(locator, condition);
+            if (element == null) {
+                String[] strategy = scriptStrategy(locator);
+                element = strategy != null
+                        ? observe(strategy, condition, locator, start)
+                        : poll(locator, condition, start);
+            }
+            if (element == null) {
+                // Visibility can change without a DOM mutation, e.g. at the end of a CSS transition
+                element = checkOnce(locator, condition);
+            }
+            if (element == null) {
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + "ms waiting for "
+                        + condition.name().toLowerCase(Locale.ROOT) + " " + locator);
+            }
+            return element;
+        } finally {
+            record(locator, condition, start);
+        }
+    }
+
+    /**
+     * @return duration of the most recent wait made through this instance
+     */
+    public long getLastWaitMillis() {
+        return lastWaitMillis;
+    }
+
+    /**
+     * Count and total time of all waits in this JVM, per condition.
+     */
+    public static String getTimingSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Condition condition : Condition.values()) {
+            long count = waitCounts.getOrDefault(condition, new LongAdder()).sum();
+            long millis = waitMillis.getOrDefault(condition, new LongAdder()).sum();
+            summary.append(String.format("%s: %d waits, %d ms total, %.1f ms avg; ",
+                    condition, count, millis, count == 0 ? 0.0 : (double) millis / count));
+        }
+        return summary.toString().trim();
+    }
+
+    private WebElement observe(String[] strategy, Condition condition, By locator, long start) {
+        try {
+            // The script settles itself at the timeout; only raise WebDriver's limit if it would cut in first
+            if (!scriptTimeoutRaised && timeout.plusSeconds(5).compareTo(DEFAULT_SCRIPT_TIMEOUT) > 0) {
+                driver.manage().timeouts().scriptTimeout(timeout.plusSeconds(5));
+                scriptTimeoutRaised = true;
+            }
+            long remainingMillis = Math.max(0, timeout.toMillis() - Duration.ofNanos(System.nanoTime() - start).toMillis());
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(OBSERVER_SCRIPT,
+                    strategy[0], strategy[1], condition.name(), remainingMillis);
+            if (!(result instanceof WebElement)) {
+                return null;
+            }
+            WebElement element = (WebElement) result;
+            if (meetsCurrently(element, condition)) {
+                return element;
+            }
+            logger.debug("Element found by MutationObserver for {} is not yet {}, polling instead", locator, condition);
+        } catch (WebDriverException e) {
+            logger.debug("MutationObserver wait unavailable for {}, polling instead: {}", locator, e.getMessage());
+        }
+        return poll(locator, condition, start);
+    }
+
+    private WebElement poll(By locator, Condition condition, long start) {
+        long deadline = start + timeout.toNanos();
+        long interval = MIN_POLL_MILLIS;
+        while (System.nanoTime() < deadline) {
+            WebElement element = checkOnce(locator, condition);
+            if (element != null) {
+                return element;
+            }
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for " + locator, e);
+            }
+            interval = Math.min(interval * 2, MAX_POLL_MILLIS);
+        }
+        return null;
+    }
+
+    private WebElement checkOnce(By locator, Condition condition) {
+        try {
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                return null;
+            }
+            WebElement element = elements.get(0);
+            return meets(element, condition) ? element : null;
+        } catch (StaleElementReferenceException | NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    private static boolean meetsCurrently(WebElement element, Condition condition) {
+        try {
+            return meets(element, condition);
+        } catch (StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check an already-resolved element against a condition. Throws StaleElementReferenceException
+     * if the element has left the DOM.
+     */
+    static boolean meets(WebElement element, Condition condition) {
+        switch (condition) {
+            case VISIBLE:
+                return element.isDisplayed();
+            case CLICKABLE:
+                return element.isDisplayed() && element.isEnabled();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Map a locator to a strategy the observer script can evaluate, or null if it cannot.
+     */
+    static String[] scriptStrategy(By locator) {
+        String description = locator.toString();
+        if (description.startsWith("By.id: ")) {
+            return new String[] {"id", description.substring("By.id: ".length())};
+        }
+        if (description.startsWith("By.cssSelector: ")) {
+            return new String[] {"css", description.substring("By.cssSelector: ".length())};
+        }
+        if (description.startsWith("By.xpath: ")) {
+            return new String[] {"xpath", description.substring("By.xpath: ".length())};
+        }
+        return null;
+    }
+
+    private void record(By locator, Condition condition, long start) {
+        lastWaitMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        waitCounts.computeIfAbsent(condition, key -> new LongAdder()).increment();
+        waitMillis.computeIfAbsent(condition, key -> new LongAdder()).add(lastWaitMillis);
+        logger.debug("Waited {} ms for {} to be {}", lastWaitMillis, locator, condition);
+    }
+}
@@ -0,0 +1,271 @@
+package com.automation.base;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embedded HTTP server for the bundled test webapp, started once per JVM and shared by all
+ * workers. Everything under {@code webapp/} on the classpath is preloaded into memory with a
+ * content hash ETag and a gzip variant, so requests are served without disk I/O and revalidations
+ * are answered with 304.
+ *
+ * <ul>
+ *   <li>-Dwebapp.port: listen port (default 0 = any free port)</li>
+ *   <li>-Dwebapp.cacheControl: Cache-Control header (default "public, max-age=3600")</li>
+ * </ul>
+ */
+public class WebAppServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebAppServer.class);
+    private static final String RESOURCE_ROOT = "webapp/";
+    private static final int MIN_GZIP_BYTES = 256;
+
+    private static WebAppServer instance;
+
+    static {
+        // Without TCP_NODELAY, headers and body go out as separate segments and Nagle plus
+        // delayed ACKs add ~40ms per response; must be set before the JDK server is loaded
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Resource> resources;
+    private final String cacheControl;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    private WebAppServer(int port) throws IOException {
+        this.resources = loadResources();
+        this.cacheControl = System.getProperty("webapp.cacheControl", "public, max-age=3600");
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2, runnable -> {
+            Thread thread = new Thread(runnable, "webapp-server-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Start the shared server if it is not running yet.
+     *
+     * @return the running server
+     */
+    public static synchronized WebAppServer start() {
+        if (instance == null) {
+            try {
+                instance = new WebAppServer(Integer.getInteger("webapp.port", 0));
+                logger.info("Web app server started at {} serving {} resources", instance.getBaseUrl(), instance.resources.size());
+            } catch (IOException e) {
+                logger.error("Failed to start web app server: {}", e.getMessage());
+                throw new RuntimeException("Failed to start web app server", e);
+            }
+        }
+        return instance;
+    }
+
+    public static synchronized void stop() {
+        if (instance != null) {
+            instance.server.stop(0);
+            instance.executor.shutdownNow();
+            logger.info("Web app server stopped. {}", instance.getStats());
+            instance = null;
+        }
+    }
+
+    /**
+     * @return base URL ending in "/", e.g. http://127.0.0.1:50123/
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    public String getStats() {
+        long count = requests.sum();
+        return String.format("requests=%d, notModified=%d, bytesSent=%d, avgLatency=%.3fms",
+                count, notModified.sum(), bytesSent.sum(),
+                count == 0 ? 0.0 : totalNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            // The JDK server resets kept-alive connections whose request body was not drained
+            requestBody.readAllBytes();
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                send(exchange, 405, null, -1);
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            Resource resource = resources.get(path.endsWith("/") ? path + "index.html" : path);
+            if (resource == null) {
+                send(exchange, 404, null, -1);
+                return;
+            }
+
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("ETag", resource.etag);
+            headers.set("Cache-Control", cacheControl);
+            headers.set("Vary", "Accept-Encoding");
+            if (resource.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.increment();
+                send(exchange, 304, null, -1);
+                return;
+            }
+
+            headers.set("Content-Type", resource.contentType);
+            byte[] body = resource.bytes;
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (resource.gzipped != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                headers.set("Content-Encoding", "gzip");
+                body = resource.gzipped;
+            }
+            send(exchange, 200, "HEAD".equals(method) ? null : body, body.length);
+        } finally {
+            exchange.close();
+            requests.increment();
+            totalNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body, long contentLength) throws IOException {
+        if (body == null) {
+            // -1 tells HttpServer there is no response body
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, contentLength);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        bytesSent.add(body.length);
+    }
+
+    private static Map<String, Resource> loadResources() throws IOException {
+        URL root = WebAppServer.class.getClassLoader().getResource(RESOURCE_ROOT);
+        if (root == null) {
+            throw new IOException("No " + RESOURCE_ROOT + " directory on the classpath");
+        }
+        Map<String, Resource> loaded = new HashMap<>();
+        if ("jar".equals(root.getProtocol())) {
+            JarFile jar = ((JarURLConnection) root.openConnection()).getJarFile();
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().startsWith(RESOURCE_ROOT)) {
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        String name = entry.getName().substring(RESOURCE_ROOT.length());
+                        loaded.put("/" + name, new Resource(name, in.readAllBytes()));
+                    }
+                }
+            }
+        } else {
+            Path rootPath;
+            try {
+                rootPath = Paths.get(root.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException("Unsupported resource location " + root, e);
+            }
+            try (Stream<Path> files = Files.walk(rootPath)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    String name = rootPath.relativize(file).toString().replace('\\', '/');
+                    loaded.put("/" + name, new Resource(name, Files.readAllBytes(file)));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static class Resource {
+        private final byte[] bytes;
+        private final byte[] gzipped;
+        private final String etag;
+        private final String contentType;
+
+        private Resource(String name, byte[] bytes) throws IOException {
+            this.bytes = bytes;
+            this.contentType = contentType(name);
+            this.etag = "\"" + sha256(bytes).substring(0, 32) + "\"";
+            this.gzipped = isCompressible(contentType) && bytes.length >= MIN_GZIP_BYTES ? gzip(bytes) : null;
+        }
+
+        private static String contentType(String name) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".html") || lower.endsWith(".htm")) return "text/html; charset=UTF-8";
+            if (lower.endsWith(".css")) return "text/css; charset=UTF-8";
+            if (lower.endsWith(".js")) return "application/javascript; charset=UTF-8";
+            if (lower.endsWith(".json")) return "application/json; charset=UTF-8";
+            if (lower.endsWith(".svg")) return "image/svg+xml";
+            if (lower.endsWith(".png")) return "image/png";
+            if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) return "image/jpeg";
+            if (lower.endsWith(".woff2")) return "font/woff2";
+            return "application/octet-stream";
+        }
+
+        private static boolean isCompressible(String contentType) {
+            return contentType.startsWith("text/") || contentType.startsWith("application/javascript")
+                    || contentType.startsWith("application/json") || contentType.startsWith("image/svg");
+        }
+
+        private static byte[] gzip(byte[] bytes) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 2);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(bytes);
+            }
+            return buffer.size() < bytes.length ? buffer.toByteArray() : null;
+        }
+
+        private static String sha256(byte[] bytes) {
+            try {
+                StringBuilder hex = new StringBuilder();
+                for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
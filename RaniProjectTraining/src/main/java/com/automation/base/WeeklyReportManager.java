@@ -174,11 +174,10 @@ public class WeeklyReportManager implements AutoCloseable {
      */
     public List<Path> getAllWeeklyReports(String downloadDirectory) {
         try {
-            List<String> allReportKeys = s3Service.getAllWeeklyReports();
             List<Path> downloadedPaths = s3Service.downloadWeeklyReportsByDateRange(
                     LocalDate.MIN, LocalDate.MAX, downloadDirectory);
 
-            logger.info("Downloaded all {} weekly reports to {}", allReportKeys.size(), downloadDirectory);
+            logger.info("Downloaded all {} weekly reports to {}", downloadedPaths.size(), downloadDirectory);
             return downloadedPaths;
 
         } catch (Exception e) {
@@ -195,11 +194,7 @@ public class WeeklyReportManager implements AutoCloseable {
      */
     public boolean weeklyReportExists(LocalDate date) {
         try {
-            List<String> allReports = s3Service.getAllWeeklyReports();
-            String dateString = date.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-
-            boolean exists = allReports.stream()
-                    .anyMatch(key -> key.contains(dateString));
+            boolean exists = s3Service.getWeeklyReportIndex().contains(date);
 
             logger.info("Weekly report exists for {}: {}", date, exists);
             return exists;
@@ -218,16 +213,9 @@ public class WeeklyReportManager implements AutoCloseable {
      */
     public software.amazon.awssdk.services.s3.model.HeadObjectResponse getReportMetadata(LocalDate date) {
         try {
-            List<String> allReports = s3Service.getAllWeeklyReports();
-            String dateString = date.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-
-            String reportKey = allReports.stream()
-                    .filter(key -> key.contains(dateString))
-                    .findFirst()
-                    .orElse(null);
-
-            if (reportKey != null) {
-                return s3Service.getReportMetadata(reportKey);
+            List<ReportObject> reports = s3Service.getWeeklyReportIndex().on(date);
+            if (!reports.isEmpty()) {
+                return s3Service.getReportMetadata(reports.get(0).getKey());
             }
 
             logger.warn("No report found for date: {}", date);
@@ -1,19 +1,25 @@
 package com.automation.pages;
 
-import com.automation.base.BaseClass;
+import com.automation.base.ElementCache;
+import com.automation.base.FormFiller;
+import com.automation.base.SmartWait;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 public class LoginPage {
 
     private static final Logger logger = LoggerFactory.getLogger(LoginPage.class);
     private WebDriver driver;
-    private WebDriverWait wait;
+    private SmartWait wait;
+    private ElementCache elements;
 
     // Locators
     private By usernameField = By.id("loginUsername");
@@ -22,65 +28,72 @@ public class LoginPage {
     private By loginMessage = By.id("loginMessage");
     private By loginTab = By.xpath("//div[contains(@class, 'nav-tab') and contains(text(), 'Login')]");
 
+    // Form fields by name for fillForm(): "username", "password"
+    private final Map<String, By> formFields = new LinkedHashMap<>();
+    private final FormFiller form;
+
     public LoginPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = BaseClass.getWait();
+        this.wait = new SmartWait(driver);
+        this.elements = new ElementCache(wait);
+        formFields.put("username", usernameField);
+        formFields.put("password", passwordField);
+        this.form = new FormFiller(driver, wait, "login", formFields);
     }
 
     public void clickLoginTab() {
         try {
-            WebElement tab = wait.until(ExpectedConditions.elementToBeClickable(loginTab));
-            tab.click();
-            logger.info("Clicked on Login tab");
+            elements.run(loginTab, SmartWait.Condition.CLICKABLE, WebElement::click);
+            logger.debug("Clicked on Login tab");
         } catch (Exception e) {
-            logger.error("Failed to click Login tab:: " + e.getMessage());
+            logger.error("Failed to click Login tab: {}", e.getMessage());
             throw new RuntimeException("Failed to click Login tab", e);
         }
     }
 
     public void enterUsername(String username) {
         try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(usernameField));
-            element.clear();
-            element.sendKeys(username);
-            logger.info("Entered username: " + username);
+            elements.run(usernameField, SmartWait.Condition.CLICKABLE, element -> {
+                element.clear();
+                element.sendKeys(username);
+            });
+            logger.debug("Entered username: {}", username);
         } catch (Exception e) {
-            logger.error("Failed to enter username: " + e.getMessage());
+            logger.error("Failed to enter username: {}", e.getMessage());
             throw new RuntimeException("Failed to enter username", e);
         }
     }
 
     public void enterPassword(String password) {
         try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(passwordField));
-            element.clear();
-            element.sendKeys(password);
-            logger.info("Entered password");
+            elements.run(passwordField, SmartWait.Condition.CLICKABLE, element -> {
+                element.clear();
+                element.sendKeys(password);
+            });
+            logger.debug("Entered password");
         } catch (Exception e) {
-            logger.error("Failed to enter password: " + e.getMessage());
+            logger.error("Failed to enter password: {}", e.getMessage());
             throw new RuntimeException("Failed to enter password", e);
         }
     }
 
     public void clickLoginButton() {
         try {
-            WebElement button = wait.until(ExpectedConditions.elementToBeClickable(loginButton));
-            button.click();
-            logger.info("Clicked Login button");
+            elements.run(loginButton, SmartWait.Condition.CLICKABLE, WebElement::click);
+            logger.debug("Clicked Login button");
         } catch (Exception e) {
-            logger.error("Failed to click Login button: " + e.getMessage());
+            logger.error("Failed to click Login button: {}", e.getMessage());
             throw new RuntimeException("Failed to click Login button", e);
         }
     }
 
     public String getLoginMessage() {
         try {
-            WebElement message = wait.until(ExpectedConditions.visibilityOfElementLocated(loginMessage));
-            String text = message.getText();
-            logger.info("Login message: " + text);
+            String text = elements.apply(loginMessage, SmartWait.Condition.VISIBLE, WebElement::getText);
+            logger.debug("Login message: {}", text);
             return text;
         } catch (Exception e) {
-            logger.error("Failed to get login message: " + e.getMessage());
+            logger.error("Failed to get login message: {}", e.getMessage());
             throw new RuntimeException("Failed to get login message", e);
         }
     }
@@ -90,10 +103,24 @@ public class LoginPage {
         return message.contains("Login successful");
     }
 
+    /**
+     * Fill several login form fields in one WebDriver round trip. Fields named in
+     * {@code nativeFields} are typed with sendKeys instead.
+     */
+    public void fillForm(Map<String, String> values, Set<String> nativeFields) {
+        form.fill(values, nativeFields);
+    }
+
+    public void fillForm(Map<String, String> values) {
+        fillForm(values, Collections.emptySet());
+    }
+
     public void login(String username, String password) {
         clickLoginTab();
-        enterUsername(username);
-        enterPassword(password);
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("username", username);
+        values.put("password", password);
+        fillForm(values);
         clickLoginButton();
     }
 }
\ No newline at end of file
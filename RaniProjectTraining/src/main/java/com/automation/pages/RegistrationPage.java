@@ -1,19 +1,26 @@
 package com.automation.pages;
 
-import com.automation.base.BaseClass;
+import com.automation.base.ElementCache;
+import com.automation.base.FormFiller;
+import com.automation.base.SmartWait;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 public class RegistrationPage {
 
     private static final Logger logger = LoggerFactory.getLogger(RegistrationPage.class);
     private WebDriver driver;
-    private WebDriverWait wait;
+    private SmartWait wait;
+    private ElementCache elements;
 
     // Locators
     private By nameField = By.id("registerName");
@@ -24,106 +31,113 @@ public class RegistrationPage {
     private By registerMessage = By.id("registerMessage");
     private By registerTab = By.xpath("//div[contains(@class, 'nav-tab') and normalize-space(text())='Register']");
 
+    // Form fields by name for fillForm(): "name", "email", "username", "password"
+    private final Map<String, By> formFields = new LinkedHashMap<>();
+    private final FormFiller form;
+
     public RegistrationPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = BaseClass.getWait();
+        this.wait = new SmartWait(driver);
+        this.elements = new ElementCache(wait);
+        formFields.put("name", nameField);
+        formFields.put("email", emailField);
+        formFields.put("username", usernameField);
+        formFields.put("password", passwordField);
+        this.form = new FormFiller(driver, wait, "registration", formFields);
     }
 
     public void clickRegisterTab() {
         try {
-            // Sleep 1 second to ensure page is loaded
-            Thread.sleep(1000);
-            // Wait for the Register tab to be present in the DOM
-            wait.until(ExpectedConditions.presenceOfElementLocated(registerTab));
-            java.util.List<WebElement> tabs = driver.findElements(registerTab);
-            if (tabs.isEmpty()) {
-                logger.error("Register tab not found! Page source:\n" + driver.getPageSource());
+            // Resolves as soon as the Register tab is in the DOM (no fixed sleep)
+            String classAttr;
+            try {
+                classAttr = elements.apply(registerTab, SmartWait.Condition.PRESENT, tab -> tab.getAttribute("class"));
+            } catch (TimeoutException e) {
                 logger.error("Register tab not found! Cannot proceed with registration.");
                 throw new RuntimeException("Register tab not found!");
             }
-            WebElement tab = tabs.get(0);
             // Check if the tab is already active
-            String classAttr = tab.getAttribute("class");
             if (classAttr != null && classAttr.contains("active")) {
-                logger.info("Register tab is already active, skipping click");
+                logger.debug("Register tab is already active, skipping click");
                 return;
             }
-            wait.until(ExpectedConditions.elementToBeClickable(tab));
-            tab.click();
-            logger.info("Clicked on Register tab");
+            elements.run(registerTab, SmartWait.Condition.CLICKABLE, WebElement::click);
+            logger.debug("Clicked on Register tab");
         } catch (Exception e) {
-            logger.error("Failed to click Register tab: " + e.getMessage());
+            logger.error("Failed to click Register tab: {}", e.getMessage());
             throw new RuntimeException("Failed to click Register tab", e);
         }
     }
 
     public void enterName(String name) {
         try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(nameField));
-            element.clear();
-            element.sendKeys(name);
-            logger.info("Entered name: " + name);
+            elements.run(nameField, SmartWait.Condition.CLICKABLE, element -> {
+                element.clear();
+                element.sendKeys(name);
+            });
+            logger.debug("Entered name: {}", name);
         } catch (Exception e) {
-            logger.error("Failed to enter name: " + e.getMessage());
+            logger.error("Failed to enter name: {}", e.getMessage());
             throw new RuntimeException("Failed to enter name", e);
         }
     }
 
     public void enterEmail(String email) {
         try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(emailField));
-            element.clear();
-            element.sendKeys(email);
-            logger.info("Entered email: " + email);
+            elements.run(emailField, SmartWait.Condition.CLICKABLE, element -> {
+                element.clear();
+                element.sendKeys(email);
+            });
+            logger.debug("Entered email: {}", email);
         } catch (Exception e) {
-            logger.error("Failed to enter email: " + e.getMessage());
+            logger.error("Failed to enter email: {}", e.getMessage());
             throw new RuntimeException("Failed to enter email", e);
         }
     }
 
     public void enterUsername(String username) {
         try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(usernameField));
-            element.clear();
-            element.sendKeys(username);
-            logger.info("Entered username: " + username);
+            elements.run(usernameField, SmartWait.Condition.CLICKABLE, element -> {
+                element.clear();
+                element.sendKeys(username);
+            });
+            logger.debug("Entered username: {}", username);
         } catch (Exception e) {
-            logger.error("Failed to enter username: " + e.getMessage());
+            logger.error("Failed to enter username: {}", e.getMessage());
             throw new RuntimeException("Failed to enter username", e);
         }
     }
 
     public void enterPassword(String password) {
         try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(passwordField));
-            element.clear();
-            element.sendKeys(password);
-            logger.info("Entered password");
+            elements.run(passwordField, SmartWait.Condition.CLICKABLE, element -> {
+                element.clear();
+                element.sendKeys(password);
+            });
+            logger.debug("Entered password");
         } catch (Exception e) {
-            logger.error("Failed to enter password: " + e.getMessage());
+            logger.error("Failed to enter password: {}", e.getMessage());
             throw new RuntimeException("Failed to enter password", e);
         }
     }
 
     public void clickRegisterButton() {
         try {
-            WebElement button = wait.until(ExpectedConditions.elementToBeClickable(registerButton));
-            button.click();
-            logger.info("Clicked Register button");
+            elements.run(registerButton, SmartWait.Condition.CLICKABLE, WebElement::click);
+            logger.debug("Clicked Register button");
         } catch (Exception e) {
-            logger.error("Failed to click Register button: " + e.getMessage());
+            logger.error("Failed to click Register button: {}", e.getMessage());
             throw new RuntimeException("Failed to click Register button", e);
         }
     }
 
     public String getRegisterMessage() {
         try {
-            WebElement message = wait.until(ExpectedConditions.visibilityOfElementLocated(registerMessage));
-            String text = message.getText();
-            logger.info("Registration message: " + text);
+            String text = elements.apply(registerMessage, SmartWait.Condition.VISIBLE, WebElement::getText);
+            logger.debug("Registration message: {}", text);
             return text;
         } catch (Exception e) {
-            logger.error("Failed to get registration message: " + e.getMessage());
+            logger.error("Failed to get registration message: {}", e.getMessage());
             throw new RuntimeException("Failed to get registration message", e);
         }
     }
@@ -133,12 +147,26 @@ public class RegistrationPage {
         return message.contains("Registration successful");
     }
 
+    /**
+     * Fill several registration form fields in one WebDriver round trip. Fields named in
+     * {@code nativeFields} are typed with sendKeys instead.
+     */
+    public void fillForm(Map<String, String> values, Set<String> nativeFields) {
+        form.fill(values, nativeFields);
+    }
+
+    public void fillForm(Map<String, String> values) {
+        fillForm(values, Collections.emptySet());
+    }
+
     public void register(String name, String email, String username, String password) {
         clickRegisterTab();
-        enterName(name);
-        enterEmail(email);
-        enterUsername(username);
-        enterPassword(password);
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("name", name);
+        values.put("email", email);
+        values.put("username", username);
+        values.put("password", password);
+        fillForm(values);
         clickRegisterButton();
     }
 }
\ No newline at end of file
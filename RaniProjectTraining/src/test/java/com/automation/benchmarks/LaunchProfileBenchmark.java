@@ -0,0 +1,63 @@
+package com.automation.benchmarks;
+
+import com.automation.base.BaseClass;
+import com.automation.base.BrowserProfile;
+import com.automation.base.DriverBinaryResolver;
+import com.automation.base.WebAppServer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Compares launch-to-first-navigation time across BrowserProfiles against the bundled webapp.
+ * Each sample launches Chrome, opens index.html and waits until the login form is usable.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.automation.benchmarks.LaunchProfileBenchmark -Dbenchmark.iterations=5
+ * </pre>
+ */
+public class LaunchProfileBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaunchProfileBenchmark.class);
+
+    public static void main(String[] args) {
+        int iterations = Integer.getInteger("benchmark.iterations", 5);
+        String appUrl = WebAppServer.start().getBaseUrl() + "index.html";
+
+        // Resolve the driver up front so it is not charged to the first profile
+        DriverBinaryResolver.resolve();
+
+        StringBuilder report = new StringBuilder(String.format("%n%-10s %8s %8s %8s%n", "profile", "min(ms)", "p50(ms)", "max(ms)"));
+        for (BrowserProfile profile : BrowserProfile.values()) {
+            long[] samples = new long[iterations];
+            for (int i = 0; i < iterations; i++) {
+                samples[i] = launchToFirstNavigation(profile, appUrl);
+            }
+            Arrays.sort(samples);
+            report.append(String.format("%-10s %8d %8d %8d%n",
+                    profile, samples[0], samples[samples.length / 2], samples[samples.length - 1]));
+        }
+        logger.info("Launch-to-first-navigation over {} iterations:{}", iterations, report);
+        WebAppServer.stop();
+    }
+
+    private static long launchToFirstNavigation(BrowserProfile profile, String appUrl) {
+        long start = System.nanoTime();
+        WebDriver driver = BaseClass.createDriver(profile);
+        try {
+            driver.get(appUrl);
+            new WebDriverWait(driver, Duration.ofSeconds(10))
+                    .until(ExpectedConditions.elementToBeClickable(By.id("loginUsername")));
+            return Duration.ofNanos(System.nanoTime() - start).toMillis();
+        } finally {
+            driver.quit();
+        }
+    }
+}
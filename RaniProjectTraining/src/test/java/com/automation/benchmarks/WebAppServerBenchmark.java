@@ -0,0 +1,86 @@
+package com.automation.benchmarks;
+
+import com.automation.base.WebAppServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures throughput and latency of the embedded WebAppServer with concurrent HTTP clients,
+ * for both full gzip responses and ETag revalidations (304).
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.automation.benchmarks.WebAppServerBenchmark \
+ *     -Dbenchmark.clients=16 -Dbenchmark.requests=2000
+ * </pre>
+ */
+public class WebAppServerBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebAppServerBenchmark.class);
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 16);
+        int requestsPerClient = Integer.getInteger("benchmark.requests", 2000);
+
+        WebAppServer server = WebAppServer.start();
+        URI uri = URI.create(server.getBaseUrl() + "index.html");
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String etag = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+                .headers().firstValue("ETag").orElseThrow();
+
+        run("full (gzip)", clients, requestsPerClient, client,
+                HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build());
+        run("revalidate (304)", clients, requestsPerClient, client,
+                HttpRequest.newBuilder(uri).header("If-None-Match", etag).build());
+
+        logger.info("Server stats: {}", server.getStats());
+        WebAppServer.stop();
+    }
+
+    private static void run(String label, int clients, int requestsPerClient, HttpClient client, HttpRequest request)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                for (int i = 0; i < requestsPerClient; i++) {
+                    long sent = System.nanoTime();
+                    client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    latencies[i] = System.nanoTime() - sent;
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[clients * requestsPerClient];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        logger.info("{}: {} requests, {} clients, {} req/s, p50={}ms p99={}ms max={}ms",
+                label, all.length, clients, Math.round(all.length / seconds),
+                millis(all[all.length / 2]), millis(all[(int) (all.length * 0.99)]), millis(all[all.length - 1]));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,52 @@
+package com.automation.load;
+
+import com.automation.pages.LoginPage;
+import com.automation.pages.RegistrationPage;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A user journey driven through the page objects, timed step by step. Each run starts from a
+ * fresh load of the app so iterations do not depend on each other.
+ */
+enum LoadFlow {
+
+    LOGIN {
+        @Override
+        boolean run(WebDriver driver, String appUrl, int user, LoadStats.Timer timer) {
+            timer.step("open", () -> driver.get(appUrl));
+            LoginPage loginPage = new LoginPage(driver);
+            timer.step("login", () -> loginPage.login("testuser", "password123"));
+            return timer.check("verify", loginPage::isLoginSuccessful);
+        }
+    },
+
+    REGISTRATION {
+        @Override
+        boolean run(WebDriver driver, String appUrl, int user, LoadStats.Timer timer) {
+            // Unique per run, virtual user and iteration
+            String username = "vu" + user + "_" + RUN_ID + "_" + registrations.incrementAndGet();
+            timer.step("open", () -> driver.get(appUrl));
+            RegistrationPage registrationPage = new RegistrationPage(driver);
+            timer.step("register", () -> registrationPage.register("Load User " + user, username + "@load.test",
+                    username, "Secret!" + username.hashCode()));
+            return timer.check("verify", registrationPage::isRegistrationSuccessful);
+        }
+    };
+
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36);
+    private static final AtomicLong registrations = new AtomicLong();
+
+    /**
+     * Drive the flow once on {@code driver}.
+     *
+     * @return whether the app reported success
+     */
+    abstract boolean run(WebDriver driver, String appUrl, int user, LoadStats.Timer timer);
+
+    String displayName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,280 @@
+package com.automation.load;
+
+import com.automation.base.BaseClass;
+import com.automation.base.BrowserProfile;
+import com.automation.base.WebAppServer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Browser-level load test that drives the Login and Registration page objects as virtual users
+ * against the embedded webapp. Each virtual user owns one browser (headless by default).
+ *
+ * <p>Closed model: every user runs flows back to back, optionally paced so that all users
+ * together start -Dload.rate iterations per second. Open model: iterations arrive at
+ * -Dload.rate per second whether or not users are free, and latency is measured from the
+ * intended arrival time, so queueing behind busy browsers shows up in the percentiles.
+ *
+ * <pre>
+ * mvn -P load test-compile exec:exec -Dload.users=8 -Dload.model=open -Dload.rate=4 -Dload.duration=120
+ * </pre>
+ *
+ * <ul>
+ *   <li>-Dload.users: concurrent browser sessions (default 4)</li>
+ *   <li>-Dload.model: closed or open (default closed)</li>
+ *   <li>-Dload.rate: iterations per second across all users (required for open, optional pacing for closed)</li>
+ *   <li>-Dload.duration / -Dload.warmup: measured and warm-up seconds (default 60 / 10)</li>
+ *   <li>-Dload.mix: weighted flows (default "login=1,registration=1")</li>
+ *   <li>-Dload.thinkTime: pause after each closed-model iteration in ms (default 0)</li>
+ *   <li>-Dload.report: JSON report (default target/load-report.json)</li>
+ *   <li>-Dbrowser.profile: launch profile (default headless)</li>
+ * </ul>
+ */
+public class LoadRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadRunner.class);
+
+    private final int users;
+    private final boolean openModel;
+    private final double rate;
+    private final long thinkMillis;
+    private final String mixSpec;
+    private final List<LoadFlow> mix;
+    private final String appUrl;
+    private final LoadStats stats = new LoadStats();
+    private final Set<LoadFlow> failedFlows = ConcurrentHashMap.newKeySet();
+
+    private long start;
+    private long measureFrom;
+    private long end;
+
+    private LoadRunner(int users, boolean openModel, double rate, long thinkMillis, String mixSpec, String appUrl) {
+        this.users = users;
+        this.openModel = openModel;
+        this.rate = rate;
+        this.thinkMillis = thinkMillis;
+        this.mixSpec = mixSpec;
+        this.mix = parseMix(mixSpec);
+        this.appUrl = appUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("load.users", 4);
+        String model = System.getProperty("load.model", "closed").trim().toLowerCase(Locale.ROOT);
+        double rate = Double.parseDouble(System.getProperty("load.rate", "0"));
+        if (!model.equals("closed") && !model.equals("open")) {
+            throw new IllegalArgumentException("Unknown load model '" + model + "', expected closed or open");
+        }
+        if (model.equals("open") && rate <= 0) {
+            throw new IllegalArgumentException("The open model needs -Dload.rate > 0");
+        }
+        BrowserProfile profile = BrowserProfile.byName(System.getProperty("browser.profile", "headless"));
+        String appUrl = WebAppServer.start().getBaseUrl() + "index.html";
+        LoadRunner runner = new LoadRunner(users, model.equals("open"), rate, Long.getLong("load.thinkTime", 0),
+                System.getProperty("load.mix", "login=1,registration=1"), appUrl);
+
+        Map<String, Object> summary;
+        try {
+            summary = runner.run(profile, Long.getLong("load.warmup", 10), Long.getLong("load.duration", 60));
+        } finally {
+            WebAppServer.stop();
+        }
+        runner.report(summary, Paths.get(System.getProperty("load.report", "target/load-report.json")));
+        System.exit(0);
+    }
+
+    private Map<String, Object> run(BrowserProfile profile, long warmupSeconds, long durationSeconds) throws Exception {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(users + 1, runnable ->
+                new Thread(runnable, "vu-" + threadCount.incrementAndGet()));
+        List<WebDriver> drivers = new ArrayList<>();
+        try {
+            // Launch every browser before the clock starts
+            List<Future<WebDriver>> launches = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                launches.add(executor.submit(() -> BaseClass.createDriver(profile)));
+            }
+            for (Future<WebDriver> launch : launches) {
+                drivers.add(launch.get());
+            }
+            logger.info("Launched {} {} browsers; {} model, {} s warm-up, {} s measured, mix {}",
+                    users, profile, openModel ? "open" : "closed", warmupSeconds, durationSeconds, mixSpec);
+
+            start = System.nanoTime();
+            measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+            BlockingQueue<Long> arrivals = new LinkedBlockingQueue<>();
+            List<Future<?>> virtualUsers = new ArrayList<>();
+            if (openModel) {
+                virtualUsers.add(executor.submit(() -> generateArrivals(arrivals)));
+            }
+            for (int i = 0; i < users; i++) {
+                int user = i;
+                WebDriver driver = drivers.get(i);
+                virtualUsers.add(executor.submit(() -> {
+                    if (openModel) {
+                        runOpen(user, driver, arrivals);
+                    } else {
+                        runClosed(user, driver);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> virtualUser : virtualUsers) {
+                virtualUser.get();
+            }
+            stats.recordNotStarted(arrivals.stream().filter(intended -> intended >= measureFrom).count());
+            return stats.summarize(end - measureFrom);
+        } finally {
+            for (WebDriver driver : drivers) {
+                try {
+                    driver.quit();
+                } catch (Exception e) {
+                    logger.warn("Failed to quit load browser: {}", e.getMessage());
+                }
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private void runClosed(int user, WebDriver driver) throws InterruptedException {
+        // With a target rate, users take turns so starts are spread evenly across the interval
+        long pacingNanos = rate > 0 ? (long) (users / rate * 1e9) : 0;
+        long next = start + (rate > 0 ? (long) (user / rate * 1e9) : 0);
+        while (true) {
+            if (pacingNanos > 0) {
+                sleepUntil(next);
+                next += pacingNanos;
+            }
+            long begin = System.nanoTime();
+            if (begin >= end) {
+                return;
+            }
+            iterate(user, driver, begin);
+            if (thinkMillis > 0) {
+                Thread.sleep(thinkMillis);
+            }
+        }
+    }
+
+    private void runOpen(int user, WebDriver driver, BlockingQueue<Long> arrivals) throws InterruptedException {
+        while (System.nanoTime() < end) {
+            Long intended = arrivals.poll(100, TimeUnit.MILLISECONDS);
+            if (intended != null) {
+                iterate(user, driver, intended);
+            }
+        }
+    }
+
+    private void generateArrivals(BlockingQueue<Long> arrivals) {
+        for (long n = 0; ; n++) {
+            long intended = start + (long) (n / rate * 1e9);
+            if (intended >= end) {
+                return;
+            }
+            sleepUntil(intended);
+            arrivals.add(intended);
+        }
+    }
+
+    /**
+     * Run one randomly chosen flow. {@code origin} is when the iteration should have started;
+     * only iterations due after warm-up are recorded.
+     */
+    private void iterate(int user, WebDriver driver, long origin) {
+        LoadFlow flow = mix.get(ThreadLocalRandom.current().nextInt(mix.size()));
+        boolean recorded = origin >= measureFrom;
+        LoadStats.Timer timer = stats.timer(flow, recorded);
+        String failure = null;
+        try {
+            if (!flow.run(driver, appUrl, user, timer)) {
+                failure = "the app did not report success";
+            }
+        } catch (RuntimeException e) {
+            failure = e.getMessage();
+        }
+        if (recorded) {
+            stats.recordIteration(timer, System.nanoTime() - origin, failure == null);
+        }
+        if (failure != null) {
+            if (failedFlows.add(flow)) {
+                logger.warn("First failure of {} (virtual user {}): {}", flow.displayName(), user, failure);
+            } else {
+                logger.debug("Virtual user {} failed {}: {}", user, flow.displayName(), failure);
+            }
+        }
+    }
+
+    private void report(Map<String, Object> summary, Path file) throws Exception {
+        logger.info("Load test finished: {} iterations in {} s ({} arrivals not started)",
+                summary.get("iterations"), summary.get("measuredSeconds"), summary.get("notStarted"));
+        ((Map<?, ?>) summary.get("flows")).forEach((flow, value) -> {
+            Map<?, ?> stats = (Map<?, ?>) value;
+            logger.info("  {}: {} ok, {} errors, {}/s, p50 {} ms, p95 {} ms, p99 {} ms, max {} ms", flow,
+                    stats.get("count"), stats.get("errors"), stats.get("throughputPerSec"), stats.get("p50Ms"), stats.get("p95Ms"),
+                    stats.get("p99Ms"), stats.get("maxMs"));
+            ((Map<?, ?>) stats.get("steps")).forEach((step, stepValue) -> {
+                Map<?, ?> stepStats = (Map<?, ?>) stepValue;
+                logger.info("    {}.{}: p50 {} ms, p95 {} ms, p99 {} ms", flow, step,
+                        stepStats.get("p50Ms"), stepStats.get("p95Ms"), stepStats.get("p99Ms"));
+            });
+        });
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("users", users);
+        json.put("model", openModel ? "open" : "closed");
+        json.put("targetRate", rate);
+        json.putAll(summary);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+        logger.info("Load report written to {}", file);
+    }
+
+    /**
+     * "login=3,registration=1" as a list with each flow repeated by its weight.
+     */
+    private static List<LoadFlow> parseMix(String spec) {
+        List<LoadFlow> mix = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            LoadFlow flow = LoadFlow.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                mix.add(flow);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Empty load mix: " + spec);
+        }
+        return mix;
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
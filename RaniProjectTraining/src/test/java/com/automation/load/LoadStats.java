@@ -0,0 +1,151 @@
+package com.automation.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * End-to-end and per-step latencies (HdrHistogram, microseconds) and outcome counts per flow.
+ * Iterations that start during warm-up are timed but not recorded. Only successful iterations
+ * count towards the latency percentiles; failed ones, which often fail fast, are kept in a
+ * separate error histogram so they cannot make a failing run look fast.
+ */
+final class LoadStats {
+
+    private final Map<String, Histogram> byFlow = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Histogram>> byStep = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> errorsByFlow = new ConcurrentHashMap<>();
+    private final AtomicLong notStarted = new AtomicLong();
+
+    /**
+     * Times the steps of one iteration.
+     */
+    final class Timer {
+        private final String flow;
+        private final boolean recorded;
+        // Step timings of this iteration, kept until it is known to have succeeded
+        private final List<Map.Entry<String, Long>> steps = new ArrayList<>();
+
+        private Timer(String flow, boolean recorded) {
+            this.flow = flow;
+            this.recorded = recorded;
+        }
+
+        void step(String step, Runnable action) {
+            long start = System.nanoTime();
+            try {
+                action.run();
+            } finally {
+                recordStep(step, System.nanoTime() - start);
+            }
+        }
+
+        boolean check(String step, BooleanSupplier condition) {
+            long start = System.nanoTime();
+            try {
+                return condition.getAsBoolean();
+            } finally {
+                recordStep(step, System.nanoTime() - start);
+            }
+        }
+
+        private void recordStep(String step, long nanos) {
+            if (recorded) {
+                steps.add(Map.entry(step, toMicros(nanos)));
+            }
+        }
+    }
+
+    Timer timer(LoadFlow flow, boolean recorded) {
+        return new Timer(flow.displayName(), recorded);
+    }
+
+    /**
+     * Record one finished iteration.
+     *
+     * @param nanos time from the intended start (open model) or actual start (closed model)
+     */
+    void recordIteration(Timer timer, long nanos, boolean succeeded) {
+        if (!succeeded) {
+            histogram(errorsByFlow, timer.flow).recordValue(toMicros(nanos));
+            return;
+        }
+        histogram(byFlow, timer.flow).recordValue(toMicros(nanos));
+        Map<String, Histogram> stepHistograms = byStep.computeIfAbsent(timer.flow, key -> new ConcurrentHashMap<>());
+        for (Map.Entry<String, Long> step : timer.steps) {
+            histogram(stepHistograms, step.getKey()).recordValue(step.getValue());
+        }
+    }
+
+    /**
+     * Arrivals that were still queued when the run ended (open model only).
+     */
+    void recordNotStarted(long count) {
+        notStarted.addAndGet(count);
+    }
+
+    /**
+     * Summary as nested maps (milliseconds, operations per second) for logging and JSON.
+     */
+    Map<String, Object> summarize(long measuredNanos) {
+        double seconds = Math.max(1, measuredNanos) / 1e9;
+        Map<String, Object> flows = new TreeMap<>();
+        TreeSet<String> names = new TreeSet<>(byFlow.keySet());
+        names.addAll(errorsByFlow.keySet());
+        for (String flow : names) {
+            Histogram histogram = byFlow.getOrDefault(flow, new Histogram(3));
+            Histogram failed = errorsByFlow.getOrDefault(flow, new Histogram(3));
+            Map<String, Object> stats = percentiles(histogram);
+            stats.put("errors", failed.getTotalCount());
+            stats.put("throughputPerSec", Math.round(histogram.getTotalCount() / seconds * 100) / 100.0);
+            if (failed.getTotalCount() > 0) {
+                stats.put("errorLatency", percentiles(failed));
+            }
+            Map<String, Object> steps = new TreeMap<>();
+            byStep.getOrDefault(flow, new ConcurrentHashMap<>()).forEach((step, stepHistogram) ->
+                    steps.put(step, percentiles(stepHistogram)));
+            stats.put("steps", steps);
+            flows.put(flow, stats);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("measuredSeconds", Math.round(seconds * 10) / 10.0);
+        summary.put("iterations", byFlow.values().stream().mapToLong(Histogram::getTotalCount).sum()
+                + errorsByFlow.values().stream().mapToLong(Histogram::getTotalCount).sum());
+        summary.put("notStarted", notStarted.get());
+        summary.put("flows", flows);
+        return summary;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", histogram.getTotalCount());
+        stats.put("p50Ms", toMillis(histogram.getValueAtPercentile(50)));
+        stats.put("p90Ms", toMillis(histogram.getValueAtPercentile(90)));
+        stats.put("p95Ms", toMillis(histogram.getValueAtPercentile(95)));
+        stats.put("p99Ms", toMillis(histogram.getValueAtPercentile(99)));
+        stats.put("maxMs", toMillis(histogram.getMaxValue()));
+        return stats;
+    }
+
+    private static Histogram histogram(Map<String, Histogram> histograms, String name) {
+        return histograms.computeIfAbsent(name, key -> new ConcurrentHistogram(3));
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -1,27 +1,149 @@
 package com.automation.runners;
 
+import com.automation.base.BaseClass;
+import com.automation.base.CommandMetrics;
+import com.automation.base.ElementCache;
+import com.automation.base.FailureArtifacts;
+import com.automation.base.SmartWait;
+import com.automation.base.WebAppServer;
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.DataProvider;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 @CucumberOptions(
     features = "src/test/resources/features",
     glue = {"com.automation.steps"},
+    tags = "not @stress",
     plugin = {
         "pretty",
         "html:target/cucumber-reports/cucumber-pretty.html",
         "json:target/cucumber-reports/CucumberTestReport.json",
-        "junit:target/cucumber-reports/CucumberTestReport.xml"
+        "junit:target/cucumber-reports/CucumberTestReport.xml",
+        "message:target/cucumber-reports/CucumberTestReport.ndjson",
+        "com.automation.runners.DurationRecorder",
+        "com.automation.runners.ImpactRecorder"
     },
     monochrome = true,
     dryRun = false,
     publish = false
 )
 public class CucumberRunner extends AbstractTestNGCucumberTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(CucumberRunner.class);
+
+    private static final List<Long> scheduledMillis = new ArrayList<>();
+    private static long scheduleStart;
+    private static long scheduleEnd;
     
+    // Worker count comes from data-provider-thread-count in testng.xml
+    // (overridable with -Dparallel.workers=N through surefire).
+    // TestNG hands rows to free workers in order, so longest-first keeps a long scenario from
+    // starting last and leaving one worker running alone at the end.
     @Override
-    @DataProvider(parallel = false)
+    @DataProvider(parallel = true)
     public Object[][] scenarios() {
-        return super.scenarios();
+        Object[][] scenarios = selectImpacted(super.scenarios());
+        Path durationFile = ScenarioDurationStore.defaultFile();
+        try {
+            ScenarioDurationStore.compactIfNeeded(durationFile);
+        } catch (IOException e) {
+            logger.warn("Could not compact scenario duration store: " + e.getMessage());
+        }
+        ScenarioDurationStore durations = ScenarioDurationStore.load(durationFile);
+        Map<Object, Long> expected = new IdentityHashMap<>();
+        for (Object[] row : scenarios) {
+            Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+            expected.put(row, durations.estimate(DurationRecorder.scenarioKey(pickle.getUri(), pickle.getLine()), null));
+        }
+        Arrays.sort(scenarios, Comparator.comparingLong((Object[] row) -> expected.get(row)).reversed());
+
+        synchronized (scheduledMillis) {
+            scheduledMillis.clear();
+            for (Object[] row : scenarios) {
+                scheduledMillis.add(expected.get(row));
+            }
+        }
+        scheduleStart = System.nanoTime();
+        return scenarios;
+    }
+
+    // With -Dimpact.select=true, keep only the scenarios affected by changes since the last recorded run
+    private static Object[][] selectImpacted(Object[][] scenarios) {
+        if (!ImpactAnalysis.isSelectionEnabled()) {
+            return scenarios;
+        }
+        ImpactAnalysis.Selection selection = ImpactAnalysis.select(DurationRecorder.projectDir());
+        if (selection.runsEverything()) {
+            logger.info("Impact analysis: running all scenarios (" + selection.reason() + ")");
+            return scenarios;
+        }
+        Object[][] selected = Arrays.stream(scenarios)
+                .filter(row -> {
+                    Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+                    return selection.includes(DurationRecorder.scenarioKey(pickle.getUri(), pickle.getLine()));
+                })
+                .toArray(Object[][]::new);
+        logger.info("Impact analysis: running " + selected.length + " of " + scenarios.length
+                + " scenarios (" + selection.reason() + ")");
+        return selected;
+    }
+
+    // Begin warming pooled browsers (-Dbrowser.pool.size) before the first scenario needs one
+    @BeforeSuite(alwaysRun = true)
+    public void warmBrowsers() {
+        BaseClass.startDriverPool();
+    }
+
+    // Reused browsers outlive their scenarios; close whatever is left once the suite is done
+    @AfterSuite(alwaysRun = true)
+    public void closeBrowsers() {
+        BaseClass.quitAllDrivers();
+        logger.info("Element cache: " + ElementCache.getStats());
+        logger.info("Waits: " + SmartWait.getTimingSummary());
+        CommandMetrics.writeReport(Paths.get("target", "command-metrics.json"));
+        WebAppServer.stop();
+        FailureArtifacts.awaitWrites(Duration.ofSeconds(30));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void markScheduleEnd() {
+        scheduleEnd = System.nanoTime();
+    }
+
+    // Compare the longest-first schedule's predicted makespan with the time the scenarios took
+    @AfterSuite(alwaysRun = true)
+    public void reportMakespan(ITestContext context) {
+        if (scheduleStart == 0 || scheduleEnd == 0) {
+            return;
+        }
+        int workers = context.getSuite().getXmlSuite().getDataProviderThreadCount();
+        long actual = TimeUnit.NANOSECONDS.toMillis(scheduleEnd - scheduleStart);
+        synchronized (scheduledMillis) {
+            long total = scheduledMillis.stream().mapToLong(Long::longValue).sum();
+            logger.info(String.format("Scheduled %d scenarios longest-first on %d workers: predicted makespan %d ms "
+                            + "(lower bound %d ms), actual %d ms",
+                    scheduledMillis.size(), workers, ScenarioShards.makespan(scheduledMillis, workers),
+                    total / Math.max(1, workers), actual));
+        }
     }
-} 
\ No newline at end of file
+} 
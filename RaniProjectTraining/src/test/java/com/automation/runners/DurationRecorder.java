@@ -0,0 +1,78 @@
+package com.automation.runners;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cucumber plugin that appends every scenario's and step's duration to the
+ * {@link ScenarioDurationStore} when the run finishes. Steps that ran more than once in the run
+ * are recorded with their mean.
+ */
+public class DurationRecorder implements ConcurrentEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurationRecorder.class);
+
+    private final Map<String, Long> scenarioMillis = new ConcurrentHashMap<>();
+    private final Map<String, long[]> stepTotals = new ConcurrentHashMap<>();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseFinished.class, this::scenarioFinished);
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> save());
+    }
+
+    /**
+     * Key of a test case, matching {@link ScenarioShards.ScenarioRef#key}. Shard JVMs run in
+     * their own directory and get the project directory through -Dproject.dir.
+     */
+    static String scenarioKey(URI uri, int line) {
+        return ScenarioShards.relativePath(projectDir(), ScenarioShards.uriToPath(uri.toString())) + ":" + line;
+    }
+
+    static Path projectDir() {
+        return Paths.get(System.getProperty("project.dir", "")).toAbsolutePath();
+    }
+
+    private void scenarioFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        scenarioMillis.put(scenarioKey(testCase.getUri(), testCase.getLocation().getLine()), event.getResult().getDuration().toMillis());
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            String text = ((PickleStepTestStep) event.getTestStep()).getStep().getText();
+            long millis = event.getResult().getDuration().toMillis();
+            stepTotals.merge(text, new long[] {millis, 1}, (total, sample) -> new long[] {total[0] + sample[0], total[1] + 1});
+        }
+    }
+
+    private void save() {
+        if (scenarioMillis.isEmpty()) {
+            return;
+        }
+        Map<String, Long> stepMillis = new ConcurrentHashMap<>();
+        stepTotals.forEach((text, total) -> stepMillis.put(text, total[0] / total[1]));
+        Path file = ScenarioDurationStore.defaultFile();
+        try {
+            ScenarioDurationStore.append(file, scenarioMillis, stepMillis);
+            logger.info("Recorded durations of {} scenarios and {} steps in {}", scenarioMillis.size(), stepMillis.size(), file);
+        } catch (IOException e) {
+            logger.warn("Could not record scenario durations in {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.automation.runners;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test impact analysis. Every run records, per scenario, the source files it exercised (its
+ * feature file, the step definition and hook classes that ran, and the page objects that issued
+ * WebDriver commands) together with the commit they were recorded at. With -Dimpact.select=true
+ * the next run diffs the working tree against that commit and only runs the scenarios whose
+ * files changed, plus new scenarios and the ones that failed last time.
+ *
+ * <p>Everything runs when there is no map yet, when git is unavailable, when the recorded commit
+ * is not an ancestor of HEAD, or when a changed file under src/ (or the build files) is not in
+ * the map, e.g. a change to com.automation.base that every scenario depends on.
+ *
+ * <ul>
+ *   <li>-Dimpact.select: run only affected scenarios (default false)</li>
+ *   <li>-Dimpact.map.file: map location (default target/impact-map.json)</li>
+ *   <li>-Dimpact.base: git ref to diff against instead of the recorded commit</li>
+ * </ul>
+ */
+final class ImpactAnalysis {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImpactAnalysis.class);
+    private static final List<String> SOURCE_ROOTS = Arrays.asList("src/main/java/", "src/test/java/");
+    private static final Set<String> BUILD_FILES = new HashSet<>(Arrays.asList("pom.xml", "testng.xml"));
+    private static final long GIT_TIMEOUT_SECONDS = 30;
+
+    private ImpactAnalysis() {
+    }
+
+    static boolean isSelectionEnabled() {
+        return Boolean.getBoolean("impact.select");
+    }
+
+    static Path mapFile() {
+        return Paths.get(System.getProperty("impact.map.file", "target/impact-map.json")).toAbsolutePath();
+    }
+
+    /**
+     * Which scenarios to run, decided once per run.
+     */
+    static final class Selection {
+        private final String reason;
+        private final Map<String, List<String>> dependencies;
+        private final Set<String> failed;
+        private final Set<String> changed;
+
+        private Selection(String reason, Map<String, List<String>> dependencies, Set<String> failed, Set<String> changed) {
+            this.reason = reason;
+            this.dependencies = dependencies;
+            this.failed = failed;
+            this.changed = changed;
+        }
+
+        static Selection everything(String reason) {
+            return new Selection(reason, null, null, null);
+        }
+
+        boolean runsEverything() {
+            return dependencies == null;
+        }
+
+        String reason() {
+            return reason;
+        }
+
+        /**
+         * @param scenarioKey "relative/path/to.feature:line"
+         */
+        boolean includes(String scenarioKey) {
+            if (runsEverything() || failed.contains(scenarioKey)) {
+                return true;
+            }
+            List<String> files = dependencies.get(scenarioKey);
+            if (files == null || changed.contains(scenarioKey.substring(0, scenarioKey.lastIndexOf(':')))) {
+                return true;
+            }
+            return files.stream().anyMatch(changed::contains);
+        }
+    }
+
+    static Selection select(Path projectDir) {
+        Path file = mapFile();
+        if (!Files.isRegularFile(file)) {
+            return Selection.everything("no impact map at " + file);
+        }
+        Map<String, Object> map = read(file);
+        Object commit = map.get("commit");
+        if (!(commit instanceof String)) {
+            return Selection.everything("impact map has no commit");
+        }
+        String base = System.getProperty("impact.base", (String) commit);
+        if (git(projectDir, "merge-base", "--is-ancestor", (String) commit, "HEAD") == null) {
+            return Selection.everything("impact map commit " + commit + " is not an ancestor of HEAD or git is unavailable");
+        }
+        List<String> diff = git(projectDir, "diff", "--name-only", "--relative", base);
+        List<String> untracked = git(projectDir, "ls-files", "--others", "--exclude-standard");
+        if (diff == null || untracked == null) {
+            return Selection.everything("git diff against " + base + " failed");
+        }
+
+        Map<String, List<String>> dependencies = stringLists(map.get("scenarios"));
+        Set<String> known = new HashSet<>();
+        dependencies.values().forEach(known::addAll);
+        Set<String> changed = new TreeSet<>(diff);
+        changed.addAll(untracked);
+        for (String path : changed) {
+            boolean relevant = path.startsWith("src/") || BUILD_FILES.contains(path);
+            if (relevant && !path.endsWith(".feature") && !known.contains(path)) {
+                return Selection.everything(path + " changed and is not covered by the impact map");
+            }
+        }
+        Set<String> failed = new HashSet<>(stringList(map.get("failed")));
+        return new Selection(changed.size() + " changed files since " + base, dependencies, failed, changed);
+    }
+
+    /**
+     * Merge one run's scenario dependencies into the map and stamp it with the current commit.
+     * The map file is locked while it is rewritten, so shard JVMs can record at the same time.
+     */
+    static void record(Path projectDir, Map<String, Set<String>> scenarioFiles, Set<String> failedScenarios) throws IOException {
+        List<String> head = git(projectDir, "rev-parse", "HEAD");
+        Path file = mapFile();
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            Map<String, Object> map = channel.size() == 0 ? new TreeMap<>() : parse(readAll(channel));
+            Map<String, List<String>> dependencies = new TreeMap<>(stringLists(map.get("scenarios")));
+            scenarioFiles.forEach((key, files) -> dependencies.put(key, new ArrayList<>(new TreeSet<>(files))));
+            Set<String> failed = new TreeSet<>(stringList(map.get("failed")));
+            failed.removeAll(scenarioFiles.keySet());
+            failed.addAll(failedScenarios);
+
+            Map<String, Object> updated = new TreeMap<>();
+            updated.put("commit", head == null || head.isEmpty() ? null : head.get(0));
+            updated.put("scenarios", dependencies);
+            updated.put("failed", failed);
+            byte[] json = new Json().toJson(updated).getBytes(StandardCharsets.UTF_8);
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(json), 0);
+        }
+    }
+
+    /**
+     * Source file of a class under src/main/java or src/test/java, relative to the project, or
+     * null for library classes.
+     */
+    static String sourceFile(Path projectDir, String className) {
+        int nested = className.indexOf('$');
+        String path = (nested < 0 ? className : className.substring(0, nested)).replace('.', '/') + ".java";
+        for (String root : SOURCE_ROOTS) {
+            if (Files.isRegularFile(projectDir.resolve(root + path))) {
+                return root + path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Run git in the project directory.
+     *
+     * @return output lines, or null if git failed or exited non-zero
+     */
+    private static List<String> git(Path projectDir, String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        try {
+            Process process = new ProcessBuilder(command).directory(projectDir.toFile()).redirectErrorStream(true).start();
+            byte[] output;
+            try (InputStream in = process.getInputStream()) {
+                output = in.readAllBytes();
+            }
+            if (!process.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                logger.debug("git {} failed: {}", String.join(" ", args), new String(output, StandardCharsets.UTF_8).trim());
+                return null;
+            }
+            List<String> lines = new ArrayList<>();
+            for (String line : new String(output, StandardCharsets.UTF_8).split("\\R")) {
+                if (!line.trim().isEmpty()) {
+                    lines.add(line.trim());
+                }
+            }
+            return lines;
+        } catch (IOException e) {
+            logger.debug("git unavailable: {}", e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static Map<String, Object> read(Path file) {
+        try {
+            return parse(Files.readAllBytes(file));
+        } catch (IOException e) {
+            logger.warn("Could not read impact map {}: {}", file, e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    private static Map<String, Object> parse(byte[] content) {
+        try {
+            return new Json().toType(new String(content, StandardCharsets.UTF_8), Json.MAP_TYPE);
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring unreadable impact map: {}", e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    private static byte[] readAll(FileChannel channel) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        channel.position(0);
+        while (channel.read(buffer) > 0) {
+            content.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        return content.toByteArray();
+    }
+
+    private static Map<String, List<String>> stringLists(Object value) {
+        Map<String, List<String>> lists = new TreeMap<>();
+        if (value instanceof Map) {
+            ((Map<?, ?>) value).forEach((key, files) -> lists.put(String.valueOf(key), stringList(files)));
+        }
+        return lists;
+    }
+
+    private static List<String> stringList(Object value) {
+        List<String> strings = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                strings.add(String.valueOf(item));
+            }
+        }
+        return new ArrayList<>(new LinkedHashSet<>(strings));
+    }
+}
@@ -0,0 +1,112 @@
+package com.automation.runners;
+
+import com.automation.base.CommandMetrics;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cucumber plugin that records the source files each scenario exercised for
+ * {@link ImpactAnalysis}: the feature file, every step definition and hook class that ran, and the
+ * page objects that issued WebDriver commands (tracked by {@link CommandMetrics}). Events for a
+ * scenario arrive on the thread that runs it, which is what makes the page tracking per scenario.
+ */
+public class ImpactRecorder implements ConcurrentEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImpactRecorder.class);
+
+    private final Path projectDir = DurationRecorder.projectDir();
+    private final Map<UUID, Set<String>> running = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> scenarioFiles = new ConcurrentHashMap<>();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, this::scenarioStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::scenarioFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> save());
+    }
+
+    private void scenarioStarted(TestCaseStarted event) {
+        // Drop page objects touched by an earlier scenario on this thread
+        CommandMetrics.drainTouchedPages();
+        running.put(event.getTestCase().getId(), ConcurrentHashMap.newKeySet());
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        Set<String> files = running.get(event.getTestCase().getId());
+        String className = declaringClass(event.getTestStep().getCodeLocation());
+        if (files != null && className != null) {
+            addSource(files, className);
+        }
+    }
+
+    private void scenarioFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        Set<String> files = running.remove(testCase.getId());
+        if (files == null) {
+            return;
+        }
+        for (String page : CommandMetrics.drainTouchedPages()) {
+            addSource(files, page);
+        }
+        String key = DurationRecorder.scenarioKey(testCase.getUri(), testCase.getLocation().getLine());
+        files.add(key.substring(0, key.lastIndexOf(':')));
+        scenarioFiles.put(key, files);
+        if (event.getResult().getStatus() != Status.PASSED) {
+            failed.add(key);
+        }
+    }
+
+    private void save() {
+        if (scenarioFiles.isEmpty()) {
+            return;
+        }
+        if (!CommandMetrics.isEnabled()) {
+            // Without command metrics the page objects a scenario used are unknown
+            logger.warn("Not recording the impact map: page tracking needs -Dwebdriver.metrics=true");
+            return;
+        }
+        try {
+            ImpactAnalysis.record(projectDir, scenarioFiles, failed);
+            logger.info("Recorded source dependencies of {} scenarios in {}", scenarioFiles.size(), ImpactAnalysis.mapFile());
+        } catch (IOException e) {
+            logger.warn("Could not record impact map {}: {}", ImpactAnalysis.mapFile(), e.getMessage());
+        }
+    }
+
+    private void addSource(Set<String> files, String className) {
+        String source = ImpactAnalysis.sourceFile(projectDir, className);
+        if (source != null) {
+            files.add(source);
+        }
+    }
+
+    /**
+     * "com.automation.steps.LoginSteps.the_user_enters_login_username(java.lang.String)" -> "com.automation.steps.LoginSteps"
+     */
+    private static String declaringClass(String codeLocation) {
+        if (codeLocation == null) {
+            return null;
+        }
+        int parameters = codeLocation.indexOf('(');
+        String method = parameters < 0 ? codeLocation : codeLocation.substring(0, parameters);
+        int lastDot = method.lastIndexOf('.');
+        return lastDot < 0 ? null : method.substring(0, lastDot);
+    }
+}
@@ -0,0 +1,182 @@
+package com.automation.runners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-scenario and per-step durations from earlier runs, kept in a small append-only binary file
+ * so that scheduling can start from history without re-parsing JSON reports. Each run appends
+ * one record per scenario and step under a file lock (shard JVMs share the file); loading folds
+ * the records into an exponentially weighted average per key, favouring recent runs.
+ *
+ * <p>Scenario keys are "relative/path/to.feature:line" as in {@link ScenarioShards.ScenarioRef#key};
+ * step keys are the step text.
+ *
+ * <ul>
+ *   <li>-Dscenario.durations.file: store location (default target/scenario-durations.bin)</li>
+ * </ul>
+ */
+final class ScenarioDurationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioDurationStore.class);
+    private static final int MAGIC = 0x53445552; // "SDUR"
+    private static final byte VERSION = 1;
+    private static final byte SCENARIO = 0;
+    private static final byte STEP = 1;
+    private static final double WEIGHT_OF_LATEST = 0.3;
+    private static final long DEFAULT_SCENARIO_MILLIS = 5000;
+    private static final int COMPACT_MIN_RECORDS = 2000;
+
+    private final Map<String, Long> scenarioMillis = new HashMap<>();
+    private final Map<String, Long> stepMillis = new HashMap<>();
+    private int records;
+
+    static Path defaultFile() {
+        return Paths.get(System.getProperty("scenario.durations.file", "target/scenario-durations.bin")).toAbsolutePath();
+    }
+
+    /**
+     * Load the store, or return an empty one if the file is missing or unreadable. A record cut
+     * short by a concurrent writer ends the load without error.
+     */
+    static ScenarioDurationStore load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return new ScenarioDurationStore();
+        }
+        try {
+            return parse(file, Files.readAllBytes(file));
+        } catch (IOException e) {
+            logger.warn("Could not read scenario duration store {}: {}", file, e.getMessage());
+            return new ScenarioDurationStore();
+        }
+    }
+
+    private static ScenarioDurationStore parse(Path file, byte[] content) {
+        ScenarioDurationStore store = new ScenarioDurationStore();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                logger.warn("Ignoring scenario duration store {} with an unknown format", file);
+                return store;
+            }
+            while (true) {
+                byte kind = in.readByte();
+                String key = in.readUTF();
+                long millis = in.readLong();
+                fold(kind == SCENARIO ? store.scenarioMillis : store.stepMillis, key, millis);
+                store.records++;
+            }
+        } catch (EOFException e) {
+            return store;
+        } catch (IOException e) {
+            logger.warn("Could not read scenario duration store {}: {}", file, e.getMessage());
+            return store;
+        }
+    }
+
+    int scenarioCount() {
+        return scenarioMillis.size();
+    }
+
+    /**
+     * Expected duration of a scenario: its own history if it has run before, otherwise the sum of
+     * its steps' history when every step is known, otherwise the mean of all known scenarios.
+     */
+    long estimate(String key, List<String> steps) {
+        Long known = scenarioMillis.get(key);
+        if (known != null) {
+            return known;
+        }
+        if (steps != null && !steps.isEmpty() && stepMillis.keySet().containsAll(steps)) {
+            return steps.stream().mapToLong(stepMillis::get).sum();
+        }
+        return scenarioMillis.isEmpty()
+                ? DEFAULT_SCENARIO_MILLIS
+                : (long) scenarioMillis.values().stream().mapToLong(Long::longValue).average().orElse(DEFAULT_SCENARIO_MILLIS);
+    }
+
+    /**
+     * Append one run's durations. Safe to call from several JVMs at once.
+     */
+    static void append(Path file, Map<String, Long> scenarios, Map<String, Long> steps) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            writeRecords(out, SCENARIO, scenarios);
+            writeRecords(out, STEP, steps);
+        }
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+             FileLock ignored = channel.lock()) {
+            if (channel.size() == 0) {
+                channel.write(ByteBuffer.wrap(header()));
+            }
+            channel.write(ByteBuffer.wrap(buffer.toByteArray()));
+        }
+    }
+
+    /**
+     * Rewrite the file as one record per key once history dominates it, so loading stays
+     * proportional to the number of scenarios rather than the number of runs. Holds the same
+     * lock as {@link #append}, so concurrent writers are not lost.
+     */
+    static void compactIfNeeded(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // read the whole file
+            }
+            ScenarioDurationStore store = parse(file, content.array());
+            int keys = store.scenarioMillis.size() + store.stepMillis.size();
+            if (store.records < COMPACT_MIN_RECORDS || store.records < keys * 4) {
+                return;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                out.write(header());
+                writeRecords(out, SCENARIO, store.scenarioMillis);
+                writeRecords(out, STEP, store.stepMillis);
+            }
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(buffer.toByteArray()), 0);
+            logger.info("Compacted scenario duration store from {} to {} records", store.records, keys);
+        }
+    }
+
+    private static void fold(Map<String, Long> estimates, String key, long millis) {
+        estimates.merge(key, millis,
+                (previous, latest) -> Math.round(previous * (1 - WEIGHT_OF_LATEST) + latest * WEIGHT_OF_LATEST));
+    }
+
+    private static void writeRecords(DataOutputStream out, byte kind, Map<String, Long> durations) throws IOException {
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            out.writeByte(kind);
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    private static byte[] header() {
+        return ByteBuffer.allocate(5).putInt(MAGIC).put(VERSION).array();
+    }
+}
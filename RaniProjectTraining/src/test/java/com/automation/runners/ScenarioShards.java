@@ -0,0 +1,212 @@
+package com.automation.runners;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Examples;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.PickleTag;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.TableRow;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Splits the runnable scenarios under a features directory into shards of roughly equal expected
+ * duration. Scenarios are identified by feature path and line ({@code Login.feature:10}, or the
+ * example row line for outlines), which is also the form {@code cucumber.features} accepts.
+ */
+final class ScenarioShards {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioShards.class);
+
+    private ScenarioShards() {
+    }
+
+    static final class ScenarioRef {
+        final Path feature;
+        final long line;
+        final String name;
+        final List<String> steps;
+        long expectedMillis;
+
+        ScenarioRef(Path feature, long line, String name, List<String> steps) {
+            this.feature = feature;
+            this.line = line;
+            this.name = name;
+            this.steps = steps;
+        }
+
+        /**
+         * @return "relative/path/to.feature:line", relative to the project directory
+         */
+        String key(Path projectDir) {
+            return relativePath(projectDir, feature) + ":" + line;
+        }
+    }
+
+    static final class Shard {
+        final int index;
+        final List<ScenarioRef> scenarios = new ArrayList<>();
+        long expectedMillis;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        /**
+         * @return value for -Dcucumber.features selecting exactly this shard's scenarios
+         */
+        String featuresArgument() {
+            Map<Path, List<Long>> linesByFeature = new LinkedHashMap<>();
+            for (ScenarioRef scenario : scenarios) {
+                linesByFeature.computeIfAbsent(scenario.feature, key -> new ArrayList<>()).add(scenario.line);
+            }
+            return linesByFeature.entrySet().stream()
+                    .map(entry -> entry.getKey().toAbsolutePath() + entry.getValue().stream()
+                            .sorted()
+                            .map(line -> ":" + line)
+                            .collect(Collectors.joining()))
+                    .collect(Collectors.joining(","));
+        }
+    }
+
+    /**
+     * Parse every feature file under {@code featuresDir} and return the pickles matching {@code tagExpression}.
+     */
+    static List<ScenarioRef> discover(Path featuresDir, String tagExpression) throws IOException {
+        Expression tags = TagExpressionParser.parse(tagExpression);
+        GherkinParser parser = GherkinParser.builder().includeSource(false).build();
+        List<ScenarioRef> scenarios = new ArrayList<>();
+        List<Path> features;
+        try (Stream<Path> files = Files.walk(featuresDir)) {
+            features = files.filter(file -> file.toString().endsWith(".feature")).sorted().collect(Collectors.toList());
+        }
+        for (Path feature : features) {
+            Map<String, Long> lines = new HashMap<>();
+            List<Pickle> pickles = new ArrayList<>();
+            try (Stream<Envelope> envelopes = parser.parse(feature)) {
+                envelopes.forEach(envelope -> {
+                    envelope.getGherkinDocument().ifPresent(document -> collectLines(document, lines));
+                    envelope.getPickle().ifPresent(pickles::add);
+                    envelope.getParseError().ifPresent(error ->
+                            logger.warn("Could not parse {}: {}", feature, error.getMessage()));
+                });
+            }
+            for (Pickle pickle : pickles) {
+                List<String> pickleTags = pickle.getTags().stream().map(PickleTag::getName).collect(Collectors.toList());
+                if (!tags.evaluate(pickleTags)) {
+                    continue;
+                }
+                // The last AST node is the example row for outlines and the scenario otherwise
+                List<String> astNodeIds = pickle.getAstNodeIds();
+                Long line = lines.get(astNodeIds.get(astNodeIds.size() - 1));
+                if (line != null) {
+                    List<String> steps = pickle.getSteps().stream().map(PickleStep::getText).collect(Collectors.toList());
+                    scenarios.add(new ScenarioRef(feature, line, pickle.getName(), steps));
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Longest-processing-time-first partitioning: scenarios are taken in descending expected
+     * duration and each goes to the currently lightest shard.
+     */
+    static List<Shard> partition(Path projectDir, List<ScenarioRef> scenarios, int shardCount, ScenarioDurationStore durations) {
+        for (ScenarioRef scenario : scenarios) {
+            scenario.expectedMillis = durations.estimate(scenario.key(projectDir), scenario.steps);
+        }
+
+        List<ScenarioRef> longestFirst = new ArrayList<>(scenarios);
+        longestFirst.sort(Comparator.comparingLong((ScenarioRef scenario) -> scenario.expectedMillis).reversed());
+
+        PriorityQueue<Shard> lightest = new PriorityQueue<>(
+                Comparator.comparingLong((Shard shard) -> shard.expectedMillis).thenComparingInt(shard -> shard.index));
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, shardCount); i++) {
+            Shard shard = new Shard(i);
+            shards.add(shard);
+            lightest.add(shard);
+        }
+        for (ScenarioRef scenario : longestFirst) {
+            Shard shard = lightest.poll();
+            shard.scenarios.add(scenario);
+            shard.expectedMillis += scenario.expectedMillis;
+            lightest.add(shard);
+        }
+        return shards;
+    }
+
+    /**
+     * Time until the last of {@code workers} finishes when each duration, in the given order, is
+     * started on the first worker to become free.
+     */
+    static long makespan(List<Long> durations, int workers) {
+        PriorityQueue<Long> finishTimes = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            finishTimes.add(0L);
+        }
+        for (long duration : durations) {
+            finishTimes.add(finishTimes.poll() + duration);
+        }
+        return finishTimes.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    static String relativePath(Path projectDir, Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path base = projectDir.toAbsolutePath().normalize();
+        Path relative = absolute.startsWith(base) ? base.relativize(absolute) : absolute;
+        return relative.toString().replace('\\', '/');
+    }
+
+    static Path uriToPath(String uri) {
+        if (uri.startsWith("file:/")) {
+            return Paths.get(URI.create(uri));
+        }
+        return Paths.get(uri.startsWith("file:") ? uri.substring("file:".length()) : uri);
+    }
+
+    private static void collectLines(GherkinDocument document, Map<String, Long> lines) {
+        document.getFeature().ifPresent(feature -> {
+            for (FeatureChild child : feature.getChildren()) {
+                child.getScenario().ifPresent(scenario -> collectLines(scenario, lines));
+                child.getRule().ifPresent(rule -> {
+                    for (RuleChild ruleChild : rule.getChildren()) {
+                        ruleChild.getScenario().ifPresent(scenario -> collectLines(scenario, lines));
+                    }
+                });
+            }
+        });
+    }
+
+    private static void collectLines(Scenario scenario, Map<String, Long> lines) {
+        lines.put(scenario.getId(), scenario.getLocation().getLine());
+        for (Examples examples : scenario.getExamples()) {
+            for (TableRow row : examples.getTableBody()) {
+                lines.put(row.getId(), row.getLocation().getLine());
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.automation.runners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the Cucumber suite as K forked JVMs instead of one. Scenarios are split into shards
+ * balanced by the durations in the {@link ScenarioDurationStore}, each shard runs testng.xml
+ * with its own browsers in target/shards/shard-N, and the shard reports are merged back into
+ * target/cucumber-reports.
+ *
+ * <pre>
+ * mvn -P shards test-compile exec:exec -Dshards=4 -Dparallel.workers=2
+ * </pre>
+ *
+ * <ul>
+ *   <li>-Dshards: number of JVMs (default 2)</li>
+ *   <li>-Dparallel.workers: data-provider threads, i.e. browsers, per JVM (default 4)</li>
+ *   <li>-Dcucumber.filter.tags: scenarios to run (default "not @stress", as in CucumberRunner)</li>
+ *   <li>-Dimpact.select=true: only run scenarios affected by changes (see {@link ImpactAnalysis})</li>
+ * </ul>
+ * Every -D option given to the launcher JVM is passed on to the shard JVMs.
+ */
+public class ShardLauncher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardLauncher.class);
+    private static final String REPORTS_DIR = "target/cucumber-reports";
+
+    public static void main(String[] args) throws Exception {
+        int shardCount = Integer.getInteger("shards", 2);
+        int workers = Integer.getInteger("parallel.workers", 4);
+        String tags = System.getProperty("cucumber.filter.tags", "not @stress");
+        Path projectDir = Paths.get("").toAbsolutePath();
+
+        List<ScenarioShards.ScenarioRef> scenarios =
+                ScenarioShards.discover(projectDir.resolve("src/test/resources/features"), tags);
+        if (ImpactAnalysis.isSelectionEnabled()) {
+            ImpactAnalysis.Selection selection = ImpactAnalysis.select(projectDir);
+            int discovered = scenarios.size();
+            scenarios.removeIf(scenario -> !selection.includes(scenario.key(projectDir)));
+            logger.info("Impact analysis: running {} of {} scenarios ({})", scenarios.size(), discovered, selection.reason());
+        }
+        Path durationFile = ScenarioDurationStore.defaultFile();
+        ScenarioDurationStore.compactIfNeeded(durationFile);
+        ScenarioDurationStore durations = ScenarioDurationStore.load(durationFile);
+        List<ScenarioShards.Shard> shards = ScenarioShards.partition(projectDir, scenarios, shardCount, durations);
+        logger.info("Split {} scenarios ({} with recorded durations) into {} shards of {} workers",
+                scenarios.size(), durations.scenarioCount(), shards.size(), workers);
+
+        List<Path> reportDirs = new ArrayList<>();
+        List<Process> processes = new ArrayList<>();
+        List<ScenarioShards.Shard> started = new ArrayList<>();
+        long start = System.nanoTime();
+        for (ScenarioShards.Shard shard : shards) {
+            if (shard.scenarios.isEmpty()) {
+                continue;
+            }
+            Path shardDir = projectDir.resolve("target/shards/shard-" + shard.index);
+            deleteRecursively(shardDir);
+            Files.createDirectories(shardDir);
+            logger.info("Shard {}: {} scenarios, expected {} ms", shard.index, shard.scenarios.size(), shard.expectedMillis);
+            processes.add(launch(projectDir, shardDir, durationFile, shard, workers));
+            started.add(shard);
+            reportDirs.add(shardDir.resolve(REPORTS_DIR));
+        }
+
+        boolean passed = true;
+        for (int i = 0; i < processes.size(); i++) {
+            int exitCode = processes.get(i).waitFor();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("Shard {} finished with exit code {} after {} ms (expected {} ms)",
+                    started.get(i).index, exitCode, elapsed, started.get(i).expectedMillis);
+            passed &= exitCode == 0;
+        }
+
+        if (reportDirs.stream().anyMatch(Files::isDirectory)) {
+            new ShardReportMerger(projectDir).merge(reportDirs, projectDir.resolve(REPORTS_DIR));
+        } else {
+            logger.error("No shard produced reports; see target/shards/shard-N/shard.log");
+        }
+        logger.info("All shards done: predicted makespan {} ms, actual {} ms",
+                started.stream().mapToLong(shard -> shard.expectedMillis).max().orElse(0),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static Process launch(Path projectDir, Path shardDir, Path durationFile, ScenarioShards.Shard shard, int workers)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            // A debugger agent would clash on its port in every shard
+            if (!argument.startsWith("-agentlib:jdwp") && !argument.startsWith("-Dcucumber.features=")) {
+                command.add(argument);
+            }
+        }
+        command.add("-Dcucumber.features=" + shard.featuresArgument());
+        command.add("-Dshard.index=" + shard.index);
+        // All shards record into the launcher's duration store, keyed relative to the project
+        command.add("-Dscenario.durations.file=" + durationFile);
+        command.add("-Dproject.dir=" + projectDir);
+        // Selection already happened here; shards record into the shared impact map
+        command.add("-Dimpact.select=false");
+        command.add("-Dimpact.map.file=" + ImpactAnalysis.mapFile());
+        command.add("-cp");
+        // Shards run in their own directory, so relative classpath entries must be anchored
+        command.add(Stream.of(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(entry -> Paths.get(entry).toAbsolutePath().toString())
+                .collect(Collectors.joining(File.pathSeparator)));
+        command.add("org.testng.TestNG");
+        command.add("-dataproviderthreadcount");
+        command.add(String.valueOf(workers));
+        command.add("-d");
+        command.add(shardDir.resolve("test-output").toString());
+        command.add(projectDir.resolve("testng.xml").toString());
+
+        // Relative report and log paths resolve inside the shard directory
+        return new ProcessBuilder(command)
+                .directory(shardDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(shardDir.resolve("shard.log").toFile())
+                .start();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.automation.runners;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges the Cucumber reports written by each shard JVM into the same files a single-JVM run
+ * produces under target/cucumber-reports: CucumberTestReport.json, CucumberTestReport.xml,
+ * CucumberTestReport.ndjson and cucumber-pretty.html.
+ */
+final class ShardReportMerger {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardReportMerger.class);
+    private static final String JSON_REPORT = "CucumberTestReport.json";
+    private static final String JUNIT_REPORT = "CucumberTestReport.xml";
+    private static final String MESSAGES_REPORT = "CucumberTestReport.ndjson";
+    private static final String HTML_REPORT = "cucumber-pretty.html";
+    private static final String HTML_RESOURCES = "io/cucumber/htmlformatter/";
+
+    private final Path projectDir;
+    private final Json json = new Json();
+
+    ShardReportMerger(Path projectDir) {
+        this.projectDir = projectDir;
+    }
+
+    /**
+     * Merge every report found in {@code shardReportDirs} into {@code outputDir}. A report type
+     * missing from a shard (e.g. the shard crashed) is skipped for that shard.
+     */
+    void merge(List<Path> shardReportDirs, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        mergeJson(existing(shardReportDirs, JSON_REPORT), outputDir.resolve(JSON_REPORT));
+        mergeJUnit(existing(shardReportDirs, JUNIT_REPORT), outputDir.resolve(JUNIT_REPORT));
+        List<String> messages = mergeMessages(existing(shardReportDirs, MESSAGES_REPORT));
+        Files.write(outputDir.resolve(MESSAGES_REPORT), messages, StandardCharsets.UTF_8);
+        writeHtml(messages, outputDir.resolve(HTML_REPORT));
+        logger.info("Merged reports from {} shards into {}", shardReportDirs.size(), outputDir);
+    }
+
+    private void mergeJson(List<Path> reports, Path output) throws IOException {
+        Map<String, Map<String, Object>> featuresByUri = new LinkedHashMap<>();
+        for (Path report : reports) {
+            String content = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+            List<Map<String, Object>> shardFeatures = json.toType(content, Json.LIST_OF_MAPS_TYPE);
+            for (Map<String, Object> feature : shardFeatures) {
+                String uri = normalizeUri(String.valueOf(feature.get("uri")));
+                Map<String, Object> merged = featuresByUri.get(uri);
+                if (merged == null) {
+                    feature.put("uri", uri);
+                    feature.put("elements", new ArrayList<>(listOfMaps(feature.get("elements"))));
+                    featuresByUri.put(uri, feature);
+                } else {
+                    listOfMaps(merged.get("elements")).addAll(listOfMaps(feature.get("elements")));
+                }
+            }
+        }
+        List<Map<String, Object>> features = new ArrayList<>(featuresByUri.values());
+        features.sort(Comparator.comparing(feature -> String.valueOf(feature.get("uri"))));
+        for (Map<String, Object> feature : features) {
+            List<Map<String, Object>> elements = listOfMaps(feature.get("elements"));
+            // Backgrounds sort with the scenario that follows them in their shard's report
+            Map<Map<String, Object>, Long> lines = new IdentityHashMap<>();
+            for (int i = elements.size() - 1; i >= 0; i--) {
+                Map<String, Object> element = elements.get(i);
+                boolean background = "background".equals(element.get("type"));
+                lines.put(element, background && i + 1 < elements.size()
+                        ? lines.get(elements.get(i + 1))
+                        : number(element.get("line")));
+            }
+            // Stable sort keeps each background directly in front of its scenario
+            elements.sort(Comparator.comparingLong(lines::get));
+        }
+        Files.write(output, json.toJson(features).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void mergeJUnit(List<Path> reports, Path output) throws IOException {
+        try {
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            Document merged = builder.newDocument();
+            Element suite = merged.createElement("testsuite");
+            merged.appendChild(suite);
+            long tests = 0, skipped = 0, failures = 0, errors = 0;
+            double time = 0;
+            for (Path report : reports) {
+                Element shardSuite = builder.parse(report.toFile()).getDocumentElement();
+                suite.setAttribute("name", shardSuite.getAttribute("name"));
+                tests += longAttribute(shardSuite, "tests");
+                skipped += longAttribute(shardSuite, "skipped");
+                failures += longAttribute(shardSuite, "failures");
+                errors += longAttribute(shardSuite, "errors");
+                time += shardSuite.getAttribute("time").isEmpty() ? 0 : Double.parseDouble(shardSuite.getAttribute("time"));
+                NodeList testCases = shardSuite.getElementsByTagName("testcase");
+                for (int i = 0; i < testCases.getLength(); i++) {
+                    suite.appendChild(merged.importNode(testCases.item(i), true));
+                }
+            }
+            suite.setAttribute("tests", String.valueOf(tests));
+            suite.setAttribute("skipped", String.valueOf(skipped));
+            suite.setAttribute("failures", String.valueOf(failures));
+            suite.setAttribute("errors", String.valueOf(errors));
+            suite.setAttribute("time", String.format(Locale.ROOT, "%.3f", time));
+
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(merged), new StreamResult(output.toFile()));
+        } catch (Exception e) {
+            throw new IOException("Failed to merge JUnit reports: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Concatenate the shards' message streams. Each shard parsed the same feature files, so only
+     * the first copy of every source and gherkinDocument is kept; later shards' pickles are
+     * re-pointed at its AST node ids, which line up one-to-one because the documents are identical.
+     */
+    private List<String> mergeMessages(List<Path> streams) throws IOException {
+        List<String> merged = new ArrayList<>();
+        Map<String, List<String>> documentIds = new HashMap<>();
+        Set<String> sources = new HashSet<>();
+        boolean metaWritten = false;
+        boolean runStarted = false;
+        Map<String, Object> runFinished = null;
+
+        for (Path stream : streams) {
+            List<Map<String, Object>> envelopes = new ArrayList<>();
+            Set<Object> executedPickles = new HashSet<>();
+            for (String line : Files.readAllLines(stream, StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    Map<String, Object> envelope = json.toType(line, Json.MAP_TYPE);
+                    envelopes.add(envelope);
+                    if (envelope.containsKey("testCase")) {
+                        executedPickles.add(asMap(envelope.get("testCase")).get("pickleId"));
+                    }
+                }
+            }
+
+            Map<String, String> idMap = new HashMap<>();
+            for (Map<String, Object> envelope : envelopes) {
+                if (envelope.containsKey("meta")) {
+                    if (metaWritten) {
+                        continue;
+                    }
+                    metaWritten = true;
+                } else if (envelope.containsKey("testRunStarted")) {
+                    if (runStarted) {
+                        continue;
+                    }
+                    runStarted = true;
+                } else if (envelope.containsKey("testRunFinished")) {
+                    runFinished = combineFinished(runFinished, asMap(envelope.get("testRunFinished")));
+                    continue;
+                } else if (envelope.containsKey("source")) {
+                    Map<String, Object> source = normalizeUri(asMap(envelope.get("source")));
+                    if (!sources.add(String.valueOf(source.get("uri")))) {
+                        continue;
+                    }
+                } else if (envelope.containsKey("gherkinDocument")) {
+                    Map<String, Object> document = normalizeUri(asMap(envelope.get("gherkinDocument")));
+                    List<String> ids = new ArrayList<>();
+                    collectIds(document, ids);
+                    List<String> canonical = documentIds.putIfAbsent(String.valueOf(document.get("uri")), ids);
+                    if (canonical != null) {
+                        for (int i = 0; i < Math.min(ids.size(), canonical.size()); i++) {
+                            idMap.put(ids.get(i), canonical.get(i));
+                        }
+                        continue;
+                    }
+                } else if (envelope.containsKey("pickle")) {
+                    Map<String, Object> pickle = normalizeUri(asMap(envelope.get("pickle")));
+                    // Every shard emits the pickles of whole features; keep the ones it actually ran
+                    if (!executedPickles.contains(pickle.get("id"))) {
+                        continue;
+                    }
+                }
+                merged.add(compact(idMap.isEmpty() ? envelope : remap(envelope, idMap)));
+            }
+        }
+        if (runFinished != null) {
+            Map<String, Object> envelope = new LinkedHashMap<>();
+            envelope.put("testRunFinished", runFinished);
+            merged.add(compact(envelope));
+        }
+        return merged;
+    }
+
+    private void writeHtml(List<String> messages, Path output) throws IOException {
+        String template = resource("index.mustache.html");
+        int css = template.indexOf("{{css}}");
+        int messagesAt = template.indexOf("{{messages}}");
+        int script = template.indexOf("{{script}}");
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write(template, 0, css);
+            writer.write(resource("cucumber-html.css"));
+            writer.write(template, css + "{{css}}".length(), messagesAt - css - "{{css}}".length());
+            for (int i = 0; i < messages.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                // Keep "</script>" inside string values from closing the script element
+                writer.write(messages.get(i).replace("</", "<\\/"));
+            }
+            writer.write(template, messagesAt + "{{messages}}".length(), script - messagesAt - "{{messages}}".length());
+            writer.write(resource("cucumber-html.js"));
+            writer.write(template.substring(script + "{{script}}".length()));
+        }
+    }
+
+    private String compact(Object value) {
+        StringBuilder line = new StringBuilder();
+        try (JsonOutput out = json.newOutput(line)) {
+            out.setPrettyPrint(false).write(value);
+        }
+        return line.toString();
+    }
+
+    private String normalizeUri(String uri) {
+        if (!uri.startsWith("file:")) {
+            return uri;
+        }
+        return "file:" + ScenarioShards.relativePath(projectDir, ScenarioShards.uriToPath(uri));
+    }
+
+    private Map<String, Object> normalizeUri(Map<String, Object> message) {
+        Object uri = message.get("uri");
+        if (uri instanceof String) {
+            message.put("uri", normalizeUri((String) uri));
+        }
+        return message;
+    }
+
+    private static Map<String, Object> combineFinished(Map<String, Object> combined, Map<String, Object> finished) {
+        if (combined == null) {
+            return finished;
+        }
+        combined.put("success", Boolean.TRUE.equals(combined.get("success")) && Boolean.TRUE.equals(finished.get("success")));
+        Map<String, Object> timestamp = asMap(finished.get("timestamp"));
+        if (compareTimestamps(timestamp, asMap(combined.get("timestamp"))) > 0) {
+            combined.put("timestamp", timestamp);
+        }
+        return combined;
+    }
+
+    private static int compareTimestamps(Map<String, Object> a, Map<String, Object> b) {
+        int bySeconds = Long.compare(number(a.get("seconds")), number(b.get("seconds")));
+        return bySeconds != 0 ? bySeconds : Long.compare(number(a.get("nanos")), number(b.get("nanos")));
+    }
+
+    private static void collectIds(Object node, List<String> ids) {
+        if (node instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                if ("id".equals(entry.getKey()) && entry.getValue() instanceof String) {
+                    ids.add((String) entry.getValue());
+                } else {
+                    collectIds(entry.getValue(), ids);
+                }
+            }
+        } else if (node instanceof List) {
+            for (Object item : (List<?>) node) {
+                collectIds(item, ids);
+            }
+        }
+    }
+
+    private static Object remap(Object node, Map<String, String> idMap) {
+        if (node instanceof String) {
+            return idMap.getOrDefault(node, (String) node);
+        }
+        if (node instanceof Map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                copy.put(String.valueOf(entry.getKey()), remap(entry.getValue(), idMap));
+            }
+            return copy;
+        }
+        if (node instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object item : (List<?>) node) {
+                copy.add(remap(item, idMap));
+            }
+            return copy;
+        }
+        return node;
+    }
+
+    private static List<Path> existing(List<Path> dirs, String name) {
+        List<Path> found = new ArrayList<>();
+        for (Path dir : dirs) {
+            Path report = dir.resolve(name);
+            if (Files.isRegularFile(report)) {
+                found.add(report);
+            } else {
+                logger.warn("Shard report {} is missing", report);
+            }
+        }
+        return found;
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = ShardReportMerger.class.getClassLoader().getResourceAsStream(HTML_RESOURCES + name)) {
+            if (in == null) {
+                throw new IOException("Missing HTML formatter resource " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long longAttribute(Element element, String name) {
+        String value = element.getAttribute(name);
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : new LinkedHashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> listOfMaps(Object value) {
+        return value instanceof List ? (List<Map<String, Object>>) value : new ArrayList<>();
+    }
+}
@@ -1,6 +1,7 @@
 package com.automation.steps;
 
 import com.automation.base.BaseClass;
+import com.automation.base.WebAppServer;
 import io.cucumber.java.en.Given;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,11 +13,10 @@ public class CommonSteps {
     @Given("the user is on the test application page")
     public void the_user_is_on_the_test_application_page() {
         try {
-            // Get the absolute path to the HTML file
-            String currentDir = System.getProperty("user.dir");
-            String htmlPath = "file://" + currentDir + "/src/main/resources/webapp/index.html";
+            // Served over HTTP by the shared embedded server (started on first use)
+            String appUrl = WebAppServer.start().getBaseUrl() + "index.html";
             
-            BaseClass.navigateToUrl(htmlPath);
+            BaseClass.navigateToUrl(appUrl);
             logger.info("Navigated to test application page");
         } catch (Exception e) {
             logger.error("Failed to navigate to test application page: " + e.getMessage());
@@ -0,0 +1,66 @@
+package com.automation.steps;
+
+import com.automation.base.BaseClass;
+import com.automation.base.BrowserProfile;
+import com.automation.base.CommandMetrics;
+import com.automation.base.FailureArtifacts;
+import com.automation.base.ScenarioLogBuffer;
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+public class Hooks {
+
+    private static final Logger logger = LoggerFactory.getLogger(Hooks.class);
+
+    private long startedAt;
+
+    // Runs before the step classes' @Before hooks so they can bind page objects to the driver
+    @Before(order = 0)
+    public void startBrowser(Scenario scenario) {
+        // Tags this thread's log events so ScenarioLogBuffer can hold them until the scenario ends
+        String uri = scenario.getUri().toString();
+        MDC.put(ScenarioLogBuffer.MDC_KEY, uri.substring(uri.lastIndexOf('/') + 1) + ":" + scenario.getLine());
+        startedAt = System.currentTimeMillis();
+        logger.info("Starting scenario: {}", scenario.getName());
+        // Keyed like the logs, so outline rows and scenarios sharing a name stay apart
+        CommandMetrics.setScenario(MDC.get(ScenarioLogBuffer.MDC_KEY));
+        BaseClass.initializeDriver(BrowserProfile.fromTags(scenario.getSourceTagNames()));
+    }
+
+    // Runs before the browser is released; encoding and writing happen in the background
+    @After(order = 10)
+    public void captureFailureArtifacts(Scenario scenario) {
+        WebDriver driver = BaseClass.getDriver();
+        if (!scenario.isFailed() || driver == null || !FailureArtifacts.isEnabled()) {
+            return;
+        }
+        String name = MDC.get(ScenarioLogBuffer.MDC_KEY);
+        FailureArtifacts.Capture capture = FailureArtifacts.capture(driver, name != null ? name : scenario.getId());
+        if (capture.hasScreenshot()) {
+            scenario.attach(capture.screenshotFile().toUri().toString(), "text/uri-list", "Screenshot");
+        }
+        if (capture.hasDom()) {
+            scenario.attach(capture.domFile().toUri().toString(), "text/uri-list", "DOM");
+        }
+        scenario.attach(capture.consoleText(), "text/plain", "Browser console");
+    }
+
+    // Runs last; with -Dbrowser.reuse=true the browser is reset instead of quit
+    @After(order = 0)
+    public void releaseBrowser(Scenario scenario) {
+        try {
+            BaseClass.releaseDriver(scenario.isFailed());
+            CommandMetrics.clearScenario();
+            logger.info("Finished scenario: {} ({})", scenario.getName(), scenario.getStatus());
+        } finally {
+            ScenarioLogBuffer.finish(MDC.get(ScenarioLogBuffer.MDC_KEY), scenario.getName(), scenario.isFailed(),
+                    System.currentTimeMillis() - startedAt);
+            MDC.remove(ScenarioLogBuffer.MDC_KEY);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.automation.steps;
 
 import com.automation.base.BaseClass;
 import com.automation.pages.LoginPage;
-import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
@@ -17,19 +16,14 @@ public class LoginSteps {
     private WebDriver driver;
     private LoginPage loginPage;
     
+    // Driver lifecycle is owned by Hooks; this only binds the page object to it
     @Before
     public void setUp() {
-        BaseClass.initializeDriver();
         driver = BaseClass.getDriver();
         loginPage = new LoginPage(driver);
         
     }
     
-    @After
-    public void tearDown() {
-        BaseClass.quitDriver();
-    }
-    
     @When("the user enters login username {string}")
     public void the_user_enters_login_username(String username) {
         try {
@@ -0,0 +1,70 @@
+package com.automation.steps;
+
+import com.automation.base.BaseClass;
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ParallelSteps {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelSteps.class);
+
+    // Browser sessions currently claimed by a running scenario, shared across all workers
+    private static final Map<SessionId, String> activeSessions = new ConcurrentHashMap<>();
+
+    private String scenarioId;
+    private SessionId claimedSession;
+    private WebDriver claimedDriver;
+
+    @Before("@stress")
+    public void captureScenario(Scenario scenario) {
+        scenarioId = scenario.getId() + " [" + Thread.currentThread().getName() + "]";
+    }
+
+    // Runs before the driver is quit by the default @After hooks
+    @After(value = "@stress", order = 20000)
+    public void releaseSession() {
+        if (claimedSession != null) {
+            activeSessions.remove(claimedSession, scenarioId);
+        }
+    }
+
+    @Given("the scenario claims its browser session")
+    public void the_scenario_claims_its_browser_session() {
+        claimedDriver = BaseClass.getDriver();
+        Assert.assertNotNull(claimedDriver, "No driver registered for thread " + Thread.currentThread().getName());
+        WebDriver raw = claimedDriver instanceof WrapsDriver ? ((WrapsDriver) claimedDriver).getWrappedDriver() : claimedDriver;
+        claimedSession = ((RemoteWebDriver) raw).getSessionId();
+
+        String owner = activeSessions.putIfAbsent(claimedSession, scenarioId);
+        Assert.assertNull(owner,
+            "Session " + claimedSession + " already owned by " + owner + " while claiming for " + scenarioId);
+        logger.info("Scenario {} claimed session {}", scenarioId, claimedSession);
+    }
+
+    @Then("the login username field should contain {string}")
+    public void the_login_username_field_should_contain(String expected) {
+        String actual = BaseClass.getDriver().findElement(By.id("loginUsername")).getAttribute("value");
+        Assert.assertEquals(actual, expected, "Login username field leaked state from another scenario");
+    }
+
+    @Then("the scenario still owns its browser session")
+    public void the_scenario_still_owns_its_browser_session() {
+        Assert.assertSame(BaseClass.getDriver(), claimedDriver, "Driver registry returned a different driver mid-scenario");
+        Assert.assertEquals(activeSessions.get(claimedSession), scenarioId,
+            "Session " + claimedSession + " is no longer owned by " + scenarioId);
+    }
+}
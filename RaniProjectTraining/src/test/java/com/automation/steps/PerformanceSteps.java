@@ -0,0 +1,86 @@
+package com.automation.steps;
+
+import com.automation.base.BaseClass;
+import com.automation.base.BrowserPerformance;
+import io.cucumber.java.After;
+import io.cucumber.java.AfterStep;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Then;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+
+import java.time.Duration;
+
+public class PerformanceSteps {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceSteps.class);
+    private Scenario scenario;
+    private long capturedEpoch;
+
+    @Before
+    public void setUp(Scenario scenario) {
+        this.scenario = scenario;
+        capturedEpoch = BaseClass.getNavigationEpoch();
+    }
+
+    // After any step that loaded a page, attach how that load performed
+    @AfterStep
+    public void captureAfterPageLoad() {
+        WebDriver driver = BaseClass.getDriver();
+        if (!BrowserPerformance.isEnabled() || driver == null || BaseClass.getNavigationEpoch() == capturedEpoch) {
+            return;
+        }
+        capturedEpoch = BaseClass.getNavigationEpoch();
+        attach(BrowserPerformance.capture(driver), "Browser performance after page load");
+    }
+
+    // Layout, script and heap counters accumulate, so take a final reading before the browser is released
+    @After(order = 20)
+    public void captureAtEnd() {
+        WebDriver driver = BaseClass.getDriver();
+        if (BrowserPerformance.isEnabled() && driver != null) {
+            attach(BrowserPerformance.capture(driver), "Browser performance at end of scenario");
+        }
+    }
+
+    @Then("the page should become interactive within {int} ms")
+    public void the_page_should_become_interactive_within_ms(int budgetMillis) {
+        BrowserPerformance.Snapshot snapshot =
+                BrowserPerformance.awaitInteractive(BaseClass.getDriver(), Duration.ofMillis(budgetMillis));
+        attach(snapshot, "Browser performance: interactive within " + budgetMillis + " ms");
+        Double interactive = snapshot.interactiveMillis();
+        logger.info("Page interactive after {} ms (budget {} ms)", interactive, budgetMillis);
+        Assert.assertNotNull(interactive, "Page did not become interactive within " + budgetMillis + " ms");
+        Assert.assertTrue(interactive <= budgetMillis,
+                "Page became interactive after " + interactive + " ms, budget is " + budgetMillis + " ms");
+    }
+
+    @Then("the first contentful paint should happen within {int} ms")
+    public void the_first_contentful_paint_should_happen_within_ms(int budgetMillis) {
+        BrowserPerformance.Snapshot snapshot = BrowserPerformance.capture(BaseClass.getDriver());
+        attach(snapshot, "Browser performance: first contentful paint within " + budgetMillis + " ms");
+        Double paint = snapshot.firstContentfulPaintMillis();
+        Assert.assertNotNull(paint, "Page has not painted any content yet");
+        Assert.assertTrue(paint <= budgetMillis,
+                "First contentful paint after " + paint + " ms, budget is " + budgetMillis + " ms");
+    }
+
+    @Then("the page should have no long task over {int} ms")
+    public void the_page_should_have_no_long_task_over_ms(int budgetMillis) {
+        BrowserPerformance.Snapshot snapshot = BrowserPerformance.capture(BaseClass.getDriver());
+        attach(snapshot, "Browser performance: no long task over " + budgetMillis + " ms");
+        Double longest = snapshot.longestTaskMillis();
+        Assert.assertNotNull(longest, "Long tasks are not observed in this browser");
+        Assert.assertTrue(longest <= budgetMillis,
+                "Longest task took " + longest + " ms, budget is " + budgetMillis + " ms");
+    }
+
+    private void attach(BrowserPerformance.Snapshot snapshot, String name) {
+        if (!snapshot.isEmpty()) {
+            scenario.attach(snapshot.toJson(), "application/json", name);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.automation.steps;
 
 import com.automation.base.BaseClass;
 import com.automation.pages.RegistrationPage;
-import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
@@ -17,18 +16,13 @@ public class RegistrationSteps {
     private WebDriver driver;
     private RegistrationPage registrationPage;
     
+    // Driver lifecycle is owned by Hooks; this only binds the page object to it
     @Before
     public void setUp() {
-        BaseClass.initializeDriver();
         driver = BaseClass.getDriver();
         registrationPage = new RegistrationPage(driver);
     }
     
-    @After
-    public void tearDown() {
-        BaseClass.quitDriver();
-    }
-    
     @When("the user clicks on the register tab")
     public void the_user_clicks_on_the_register_tab() {
         try {
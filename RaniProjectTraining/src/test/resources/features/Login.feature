@@ -19,3 +19,11 @@ Feature: Login Functionality
     And the user enters login password "wrongpassword"
     And the user clicks the login button
     Then the user should see login message "Invalid credentials!"
+
+  @performance @login
+  Scenario: Login page becomes interactive within budget
+    When the user enters login username "testuser"
+    And the user enters login password "password123"
+    And the user clicks the login button
+    Then the user should see login message "Login successful!"
+    And the page should become interactive within 3000 ms
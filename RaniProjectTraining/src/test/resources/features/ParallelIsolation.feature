@@ -0,0 +1,33 @@
+@stress
+Feature: Parallel Driver Isolation
+  As a framework maintainer
+  I want every parallel scenario to own its browser session
+  So that scenarios never see each other's driver state
+
+  Background:
+    Given the user is on the test application page
+
+  Scenario Outline: Scenario keeps its own browser session under parallel load
+    Given the scenario claims its browser session
+    When the user enters login username "<marker>"
+    Then the login username field should contain "<marker>"
+    And the scenario still owns its browser session
+
+    Examples:
+      | marker    |
+      | worker-01 |
+      | worker-02 |
+      | worker-03 |
+      | worker-04 |
+      | worker-05 |
+      | worker-06 |
+      | worker-07 |
+      | worker-08 |
+      | worker-09 |
+      | worker-10 |
+      | worker-11 |
+      | worker-12 |
+      | worker-13 |
+      | worker-14 |
+      | worker-15 |
+      | worker-16 |